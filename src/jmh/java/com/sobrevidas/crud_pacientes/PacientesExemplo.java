@@ -0,0 +1,57 @@
+package com.sobrevidas.crud_pacientes;
+
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+
+import java.time.LocalDate;
+
+/**
+ * Pacientes com todos os campos preenchidos, no formato do {@code pacientes.csv}, para os benchmarks.
+ */
+public final class PacientesExemplo {
+
+    public static final String CABECALHO_CSV = "cpf,nome,nome_mae,data_nascimento,cep,endereco,num_endereco,"
+            + "complemento,bairro,cidade,estado,telefone_celular,telefone_responsavel,email,sexo,num_cartao_sus,"
+            + "eh_tabagista,eh_etilista,tem_lesao_suspeita,participa_smart_monitor";
+
+    private PacientesExemplo() {
+    }
+
+    public static Paciente paciente(int i) {
+        return Paciente.builder()
+                .id((long) i + 1)
+                .cpf(cpf(i))
+                .nome("Paciente de Teste " + i)
+                .nomeMae("Mãe do Paciente " + i)
+                .dataNascimento(LocalDate.of(1950, 1, 1).plusDays(i % 20000))
+                .cep("74000" + String.format("%03d", i % 1000))
+                .endereco("Rua " + (i % 300))
+                .numEndereco(Integer.toString(i % 2000))
+                .complemento(i % 3 == 0 ? "Casa" : null)
+                .bairro("Setor " + (i % 50))
+                .cidade("Goiânia")
+                .estado("GO")
+                .telefoneCelular("62999" + String.format("%06d", i % 1_000_000))
+                .email("paciente" + i + "@teste.com")
+                .sexo(i % 2 == 0 ? "Feminino" : "Masculino")
+                .numCartaoSus("700" + String.format("%012d", i))
+                .ehTabagista(i % 5 == 0)
+                .ehEtilista(i % 7 == 0)
+                .temLesaoSuspeita(i % 11 == 0 ? null : Boolean.FALSE)
+                .participaSmartMonitor(i % 2 == 0)
+                .versao(i % 4)
+                .build();
+    }
+
+    public static String linhaCsv(int i) {
+        Paciente p = paciente(i);
+        return String.join(",", p.getCpf(), p.getNome(), p.getNomeMae(), p.getDataNascimento() + " 00:00:00",
+                p.getCep(), p.getEndereco(), p.getNumEndereco(), p.getComplemento() == null ? "" : p.getComplemento(),
+                p.getBairro(), p.getCidade(), p.getEstado(), p.getTelefoneCelular(), "", p.getEmail(), p.getSexo(),
+                p.getNumCartaoSus(), p.getEhTabagista().toString(), p.getEhEtilista().toString(),
+                String.valueOf(p.getTemLesaoSuspeita()), p.getParticipaSmartMonitor().toString());
+    }
+
+    private static String cpf(int i) {
+        return String.format("%011d", 10_000_000_000L + i);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sobrevidas.crud_pacientes.PacientesExemplo;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapper;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes no fio e CPU de serialização de 10 mil pacientes em JSON, CBOR e Smile, com e sem gzip (o mesmo nível
+ * padrão do Deflater usado pela compressão do Tomcat). O tamanho não varia entre execuções, então é calculado uma vez
+ * no setup e impresso no log de cada combinação; o benchmark mede o tempo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatosRespostaBenchmark {
+
+    private static final int TAMANHO_LISTA = 10_000;
+
+    @Param({"json", "cbor", "smile"})
+    public String formato;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private List<PacienteResponseDTO> pacientes;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (formato) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        PacienteMapper mapper = new PacienteMapperImpl();
+        pacientes = IntStream.range(0, TAMANHO_LISTA)
+                .mapToObj(i -> mapper.toResponseDTO(PacientesExemplo.paciente(i)))
+                .toList();
+        System.out.printf("%nbytes no fio (%s, gzip=%s): %d%n", formato, gzip, listaDe10MilPacientes());
+    }
+
+    @Benchmark
+    public long listaDe10MilPacientes() throws IOException {
+        ContadorDeBytes contador = new ContadorDeBytes();
+        // O Jackson fecha o stream ao final, o que também conclui o gzip.
+        objectMapper.writeValue(gzip ? new GZIPOutputStream(contador, 8192) : contador, pacientes);
+        return contador.bytes;
+    }
+
+    private static final class ContadorDeBytes extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sobrevidas.crud_pacientes.PacientesExemplo;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapper;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialização das respostas pelo Jackson, com o {@link ObjectMapper} nas configurações padrão do Spring
+ * (datas ISO-8601). A saída vai para um stream descartável (o Jackson o fecha a cada escrita), como o corpo da resposta, para medir só o Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoJsonBenchmark {
+
+    private static final int TAMANHO_LISTA = 10_000;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private PacienteResponseDTO paciente;
+    private List<PacienteResponseDTO> pacientes;
+    private List<PacienteResumoDTO> resumos;
+
+    @Setup
+    public void setUp() {
+        PacienteMapper mapper = new PacienteMapperImpl();
+        paciente = mapper.toResponseDTO(PacientesExemplo.paciente(42));
+        pacientes = IntStream.range(0, TAMANHO_LISTA)
+                .mapToObj(i -> mapper.toResponseDTO(PacientesExemplo.paciente(i)))
+                .toList();
+        resumos = pacientes.stream()
+                .map(p -> new PacienteResumoDTO(p.id(), p.nome(), p.cpf(), p.ehTabagista(), p.ehEtilista(),
+                        p.temLesaoSuspeita()))
+                .toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void pacienteUnico() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), paciente);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void listaDe10MilPacientes() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), pacientes);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void listaDe10MilResumos() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), resumos);
+    }
+}
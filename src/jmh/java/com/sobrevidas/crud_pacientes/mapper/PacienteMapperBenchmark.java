@@ -0,0 +1,60 @@
+package com.sobrevidas.crud_pacientes.mapper;
+
+import com.sobrevidas.crud_pacientes.PacientesExemplo;
+import com.sobrevidas.crud_pacientes.dto.PacientePatchDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteRequestDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões entidade ↔ DTO feitas pelo MapStruct em cada requisição de leitura e escrita.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacienteMapperBenchmark {
+
+    private final PacienteMapper mapper = new PacienteMapperImpl();
+    private Paciente paciente;
+    private PacienteRequestDTO request;
+    private PacientePatchDTO patch;
+
+    @Setup
+    public void setUp() {
+        paciente = PacientesExemplo.paciente(42);
+        PacienteResponseDTO dto = mapper.toResponseDTO(paciente);
+        request = new PacienteRequestDTO(dto.cpf(), dto.nome(), dto.dataNascimento(), dto.nomeMae(), dto.cep(),
+                dto.endereco(), dto.numEndereco(), dto.complemento(), dto.bairro(), dto.cidade(), dto.estado(),
+                dto.telefoneCelular(), dto.telefoneResponsavel(), dto.email(), dto.sexo(), dto.numCartaoSus(),
+                dto.ehTabagista(), dto.ehEtilista(), dto.temLesaoSuspeita(), dto.participaSmartMonitor());
+        patch = new PacientePatchDTO(true, null, false);
+    }
+
+    @Benchmark
+    public PacienteResponseDTO entidadeParaResponse() {
+        return mapper.toResponseDTO(paciente);
+    }
+
+    @Benchmark
+    public Paciente requestParaEntidade() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public Paciente atualizarEntidade() {
+        mapper.updateEntityFromDto(request, paciente);
+        return paciente;
+    }
+
+    @Benchmark
+    public Paciente patchEntidade() {
+        mapper.patchEntityFromDto(patch, paciente);
+        return paciente;
+    }
+}
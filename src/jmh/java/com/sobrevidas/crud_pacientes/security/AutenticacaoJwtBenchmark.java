@@ -0,0 +1,97 @@
+package com.sobrevidas.crud_pacientes.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da autenticação de uma requisição com o mesmo Bearer token, com e sem o
+ * {@link JwtAuthenticationManagerComCache}. O JWK set vem de um endpoint local (JDK HttpServer) no lugar do
+ * Keycloak, como em {@code JwtAuthenticationManagerComCacheTest}, e o token é RS256 com chave de 2048 bits. O JWK
+ * set fica no cache do Nimbus depois da primeira busca, então sem o cache de tokens o que se mede é a verificação da
+ * assinatura, a validação das claims e a conversão dos papéis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutenticacaoJwtBenchmark {
+
+    private static final String ISSUER = "http://localhost/realms/sobrevidas";
+
+    @Param({"false", "true"})
+    public boolean cacheTokens;
+
+    private HttpServer servidor;
+    private AuthenticationManager manager;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey chave = new RSAKeyGenerator(2048).keyID("chave-1").generate();
+        byte[] jwkSet = new JWKSet(chave.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/certs", troca -> {
+            troca.getResponseHeaders().add("Content-Type", "application/json");
+            troca.sendResponseHeaders(200, jwkSet.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(jwkSet);
+            }
+        });
+        servidor.start();
+
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(JwtConfig.jwtDecoder(
+                URI.create("http://127.0.0.1:" + servidor.getAddress().getPort() + "/certs").toURL(),
+                ISSUER, Duration.ofMinutes(15), Duration.ofMinutes(1), Duration.ofSeconds(30)));
+        provider.setJwtAuthenticationConverter(new JWTConverter());
+        // Sem cache, o filtro chama o provider diretamente, como fazia antes do JwtAuthenticationManagerComCache.
+        manager = cacheTokens
+                ? new JwtAuthenticationManagerComCache(provider, 10_000, Duration.ofMinutes(5))
+                : provider::authenticate;
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("paciente-app")
+                .issuer(ISSUER)
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .claim("realm_access", Map.of("roles", List.of("USER")))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(chave.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(chave));
+        token = jwt.serialize();
+    }
+
+    @TearDown
+    public void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Benchmark
+    public Authentication autenticarMesmoToken() {
+        return manager.authenticate(new BearerTokenAuthenticationToken(token));
+    }
+}
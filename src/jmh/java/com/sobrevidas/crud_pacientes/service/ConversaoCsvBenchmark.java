@@ -0,0 +1,63 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.PacientesExemplo;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Custo por linha da importação de CSV antes do banco: a conversão de um {@link CSVRecord} em {@link Paciente}
+ * ({@code LocalDate.parse}, {@code parseBoolean}) e a leitura do texto pelo commons-csv somada à conversão.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoCsvBenchmark {
+
+    private static final int LINHAS = 1000;
+
+    private String csv;
+    private List<CSVRecord> registros;
+
+    @Setup
+    public void setUp() throws IOException {
+        csv = IntStream.range(0, LINHAS)
+                .mapToObj(PacientesExemplo::linhaCsv)
+                .collect(Collectors.joining("\n", PacientesExemplo.CABECALHO_CSV + "\n", "\n"));
+        registros = ler(csv).getRecords();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void converterRegistro(Blackhole blackhole) {
+        for (CSVRecord registro : registros) {
+            blackhole.consume(PacienteImportService.converterRegistro(registro));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void lerEConverterLinha(Blackhole blackhole) throws IOException {
+        for (CSVRecord registro : ler(csv)) {
+            blackhole.consume(PacienteImportService.converterRegistro(registro));
+        }
+    }
+
+    private static CSVParser ler(String texto) throws IOException {
+        // Mesmo formato usado por PacienteImportService.lerBlocos.
+        return CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(texto));
+    }
+}
@@ -2,8 +2,10 @@ package com.sobrevidas.crud_pacientes;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CrudPacientesApplication {
 
 	public static void main(String[] args) {
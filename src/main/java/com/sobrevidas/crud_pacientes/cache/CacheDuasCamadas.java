@@ -0,0 +1,166 @@
+package com.sobrevidas.crud_pacientes.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache em duas camadas: uma local à réplica (Caffeine, leitura sem rede) na frente de uma compartilhada entre
+ * todas as réplicas (Redis). Escritas vão às duas camadas e são anunciadas às outras réplicas, que descartam a
+ * sua cópia local e passam a ler a versão nova da camada compartilhada.
+ *
+ * <p>As chaves são convertidas em texto nas duas camadas, para que a chave anunciada pelo canal de invalidação
+ * seja igual à guardada no cache local de qualquer réplica. Falhas da camada compartilhada não chegam a quem usa
+ * o cache: leituras viram falta (e vão ao banco) e escritas ficam só no log, valendo o TTL do Redis como limite.
+ */
+public class CacheDuasCamadas implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheDuasCamadas.class);
+
+    private final String nome;
+    private final Cache local;
+    private final Cache compartilhado;
+    private final BiConsumer<String, String> anunciarInvalidacao;
+
+    public CacheDuasCamadas(String nome, Cache local, Cache compartilhado, BiConsumer<String, String> anunciarInvalidacao) {
+        this.nome = nome;
+        this.local = local;
+        this.compartilhado = compartilhado;
+        this.anunciarInvalidacao = anunciarInvalidacao;
+    }
+
+    @Override
+    public String getName() {
+        return nome;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String chave = chave(key);
+        ValueWrapper valor = local.get(chave);
+        if (valor == null) {
+            valor = lerCompartilhado(chave);
+            if (valor != null) {
+                local.put(chave, valor.get());
+            }
+        }
+        return valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valor = get(key);
+        if (valor != null && type != null && !type.isInstance(valor.get())) {
+            throw new IllegalStateException("Valor em cache não é do tipo " + type.getName() + ": " + valor.get());
+        }
+        return valor == null ? null : (T) valor.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String chave = chave(key);
+        return local.get(chave, () -> {
+            ValueWrapper compartilhadoAtual = lerCompartilhado(chave);
+            if (compartilhadoAtual != null) {
+                return (T) compartilhadoAtual.get();
+            }
+            T carregado = valueLoader.call();
+            // putIfAbsent: se outra réplica gravou uma versão mais nova enquanto líamos o banco, ela prevalece.
+            ValueWrapper existente = gravarCompartilhadoSeAusente(chave, carregado);
+            return existente == null ? carregado : (T) existente.get();
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String chave = chave(key);
+        escreverCompartilhado("put", chave, () -> compartilhado.put(chave, value));
+        local.put(chave, value);
+        anunciarInvalidacao.accept(nome, chave);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String chave = chave(key);
+        ValueWrapper existente = gravarCompartilhadoSeAusente(chave, value);
+        Object atual = existente == null ? value : existente.get();
+        local.put(chave, atual);
+        return existente == null ? null : new SimpleValueWrapper(atual);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String chave = chave(key);
+        escreverCompartilhado("evict", chave, () -> compartilhado.evict(chave));
+        local.evict(chave);
+        anunciarInvalidacao.accept(nome, chave);
+    }
+
+    @Override
+    public void clear() {
+        escreverCompartilhado("clear", null, compartilhado::clear);
+        local.clear();
+        anunciarInvalidacao.accept(nome, null);
+    }
+
+    Cache local() {
+        return local;
+    }
+
+    Cache compartilhado() {
+        return compartilhado;
+    }
+
+    /**
+     * Chamado quando outra réplica anuncia uma escrita: só a cópia local é descartada.
+     */
+    void invalidarLocal(String chave) {
+        if (chave == null) {
+            local.clear();
+        } else {
+            local.evict(chave);
+        }
+    }
+
+    private ValueWrapper lerCompartilhado(String chave) {
+        try {
+            return compartilhado.get(chave);
+        } catch (RuntimeException e) {
+            log.warn("Cache compartilhado '{}' indisponível na leitura de {}: {}", nome, chave, e.getMessage());
+            return null;
+        }
+    }
+
+    private ValueWrapper gravarCompartilhadoSeAusente(String chave, Object valor) {
+        try {
+            return compartilhado.putIfAbsent(chave, valor);
+        } catch (RuntimeException e) {
+            log.warn("Cache compartilhado '{}' indisponível na gravação de {}: {}", nome, chave, e.getMessage());
+            return null;
+        }
+    }
+
+    private void escreverCompartilhado(String operacao, String chave, Runnable escrita) {
+        try {
+            escrita.run();
+        } catch (RuntimeException e) {
+            log.error("Falha no {} do cache compartilhado '{}' (chave {}); réplicas podem ler o valor antigo até o TTL: {}",
+                    operacao, nome, chave, e.getMessage());
+        }
+    }
+
+    private static String chave(Object key) {
+        return String.valueOf(key);
+    }
+}
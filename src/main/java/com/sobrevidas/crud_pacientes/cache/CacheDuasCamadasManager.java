@@ -0,0 +1,57 @@
+package com.sobrevidas.crud_pacientes.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Combina o {@link CacheManager} local e o compartilhado em {@link CacheDuasCamadas} e liga os caches ao
+ * {@link CanalInvalidacaoCache}: as escritas desta réplica são publicadas, as das outras descartam a cópia local.
+ */
+public class CacheDuasCamadasManager implements CacheManager {
+
+    private final String replica = UUID.randomUUID().toString();
+    private final CacheManager local;
+    private final CacheManager compartilhado;
+    private final CanalInvalidacaoCache canal;
+    private final Map<String, CacheDuasCamadas> caches = new ConcurrentHashMap<>();
+
+    public CacheDuasCamadasManager(CacheManager local, CacheManager compartilhado, CanalInvalidacaoCache canal) {
+        this.local = local;
+        this.compartilhado = compartilhado;
+        this.canal = canal;
+        canal.assinar(this::aplicar);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, nome -> {
+            Cache cacheLocal = local.getCache(nome);
+            Cache cacheCompartilhado = compartilhado.getCache(nome);
+            if (cacheLocal == null || cacheCompartilhado == null) {
+                return null;
+            }
+            return new CacheDuasCamadas(nome, cacheLocal, cacheCompartilhado,
+                    (cache, chave) -> canal.publicar(new CanalInvalidacaoCache.InvalidacaoCache(replica, cache, chave)));
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return local.getCacheNames();
+    }
+
+    private void aplicar(CanalInvalidacaoCache.InvalidacaoCache invalidacao) {
+        if (replica.equals(invalidacao.origem())) {
+            return;
+        }
+        CacheDuasCamadas cache = caches.get(invalidacao.cache());
+        if (cache != null) {
+            cache.invalidarLocal(invalidacao.chave());
+        }
+    }
+}
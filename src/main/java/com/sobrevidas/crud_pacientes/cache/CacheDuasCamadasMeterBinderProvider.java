@@ -0,0 +1,36 @@
+package com.sobrevidas.crud_pacientes.cache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMeterBinderProvider;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publica as métricas {@code cache.*} das duas camadas de um {@link CacheDuasCamadas}, separadas pela tag
+ * {@code camada} ({@code local} ou {@code compartilhado}). Sem isto o Spring Boot não reconhece o cache e nenhuma
+ * das camadas aparece nas métricas.
+ */
+public class CacheDuasCamadasMeterBinderProvider implements CacheMeterBinderProvider<CacheDuasCamadas> {
+
+    private final CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+    private final RedisCacheMeterBinderProvider redis = new RedisCacheMeterBinderProvider();
+
+    @Override
+    public MeterBinder getMeterBinder(CacheDuasCamadas cache, Iterable<Tag> tags) {
+        List<MeterBinder> camadas = new ArrayList<>(2);
+        if (cache.local() instanceof CaffeineCache local) {
+            camadas.add(caffeine.getMeterBinder(local, Tags.concat(tags, "camada", "local")));
+        }
+        if (cache.compartilhado() instanceof RedisCache compartilhado) {
+            camadas.add(redis.getMeterBinder(compartilhado, Tags.concat(tags, "camada", "compartilhado")));
+        }
+        return registry -> camadas.forEach(camada -> camada.bindTo(registry));
+    }
+}
@@ -0,0 +1,54 @@
+package com.sobrevidas.crud_pacientes.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link CaffeineCache} cujo {@code get(key, loader)} (o {@code @Cacheable(sync = true)}) não carrega dentro de um
+ * monitor. No Caffeine síncrono o loader roda dentro do {@code ConcurrentHashMap.compute}, que é
+ * {@code synchronized}: no Java 21 uma thread virtual esperando o banco ali fica presa (pinned) à thread de
+ * plataforma. Aqui o compute só insere um {@link CompletableFuture} vazio; a thread que o inseriu roda o loader fora
+ * da trava e o completa, e as demais requisições pela mesma chave esperam no future, o que libera a thread de
+ * plataforma. Diferente do {@code get} assíncrono padrão do Spring, o loader continua na thread de quem chamou, com
+ * a mesma transação e contexto de segurança.
+ *
+ * <p>Requer {@code asyncCacheMode}. O Caffeine descarta o future se ele falhar ou terminar nulo, e um put ou evict
+ * durante a carga o substitui, de modo que o valor carregado não sobrescreve uma escrita mais nova.
+ */
+public class CaffeineCacheCargaUnica extends CaffeineCache {
+
+    public CaffeineCacheCargaUnica(String name, AsyncCache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> carga = new CompletableFuture<>();
+        CompletableFuture<Object> atual = getAsyncCache().get(key, (k, executor) -> carga);
+        if (atual == carga) {
+            try {
+                carga.complete(toStoreValue(valueLoader.call()));
+            } catch (RuntimeException | Error e) {
+                carga.completeExceptionally(e);
+                throw e;
+            } catch (Exception e) {
+                carga.completeExceptionally(e);
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+        try {
+            return (T) fromStoreValue(atual.join());
+        } catch (CompletionException e) {
+            // Quem esperava recebe a mesma exceção de quem carregou (ex.: ResourceNotFoundException).
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.sobrevidas.crud_pacientes.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Meio pelo qual as réplicas avisam umas às outras que uma entrada do cache local deixou de valer.
+ * A entrega é "no máximo uma vez": uma mensagem perdida só deixa a réplica com o valor antigo até o TTL do cache
+ * local expirar.
+ */
+public interface CanalInvalidacaoCache {
+
+    void publicar(InvalidacaoCache invalidacao);
+
+    void assinar(Consumer<InvalidacaoCache> ouvinte);
+
+    /**
+     * @param origem identificador da réplica que publicou, para ela ignorar as próprias mensagens
+     * @param chave  chave invalidada, já convertida em texto; {@code null} invalida o cache inteiro
+     */
+    record InvalidacaoCache(String origem, String cache, String chave) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.sobrevidas.crud_pacientes.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * {@link CanalInvalidacaoCache} sobre o pub/sub do Redis: cada invalidação vira uma mensagem JSON no canal
+ * configurado, recebida por todas as réplicas conectadas (inclusive a que publicou, que a ignora).
+ */
+public class RedisCanalInvalidacaoCache implements CanalInvalidacaoCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCanalInvalidacaoCache.class);
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer container;
+    private final ChannelTopic canal;
+    private final ObjectMapper objectMapper;
+
+    public RedisCanalInvalidacaoCache(StringRedisTemplate redis, RedisMessageListenerContainer container,
+                                      String canal, ObjectMapper objectMapper) {
+        this.redis = redis;
+        this.container = container;
+        this.canal = new ChannelTopic(canal);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publicar(InvalidacaoCache invalidacao) {
+        try {
+            redis.convertAndSend(canal.getTopic(), objectMapper.writeValueAsString(invalidacao));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a invalidação de cache.", e);
+        } catch (RuntimeException e) {
+            // A escrita no banco já foi confirmada; as outras réplicas ficam com a cópia antiga até o TTL local.
+            log.warn("Falha ao publicar a invalidação de cache {}: {}", invalidacao, e.getMessage());
+        }
+    }
+
+    @Override
+    public void assinar(Consumer<InvalidacaoCache> ouvinte) {
+        container.addMessageListener((mensagem, padrao) -> {
+            try {
+                ouvinte.accept(objectMapper.readValue(
+                        new String(mensagem.getBody(), StandardCharsets.UTF_8), InvalidacaoCache.class));
+            } catch (IOException e) {
+                log.warn("Mensagem de invalidação de cache ignorada: {}", e.getMessage());
+            }
+        }, canal);
+    }
+}
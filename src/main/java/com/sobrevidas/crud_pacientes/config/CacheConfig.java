@@ -0,0 +1,118 @@
+package com.sobrevidas.crud_pacientes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.sobrevidas.crud_pacientes.cache.CacheDuasCamadasManager;
+import com.sobrevidas.crud_pacientes.cache.CacheDuasCamadasMeterBinderProvider;
+import com.sobrevidas.crud_pacientes.cache.CaffeineCacheCargaUnica;
+import com.sobrevidas.crud_pacientes.cache.CanalInvalidacaoCache;
+import com.sobrevidas.crud_pacientes.cache.RedisCanalInvalidacaoCache;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PACIENTES = "pacientes";
+
+    private static CaffeineCacheManager caffeine(String spec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(PACIENTES) {
+            @Override
+            protected Cache adaptCaffeineCache(String name, AsyncCache<Object, Object> cache) {
+                return new CaffeineCacheCargaUnica(name, cache, isAllowNullValues());
+            }
+        };
+        caffeine.setCacheSpecification(spec);
+        caffeine.setAllowNullValues(false);
+        // Modo assíncrono só para o CaffeineCacheCargaUnica carregar fora do synchronized do Caffeine, o que
+        // evita prender threads virtuais; para quem usa o cache a API continua síncrona.
+        caffeine.setAsyncCacheMode(true);
+        return caffeine;
+    }
+
+    /**
+     * Padrão: cache só em memória, um por réplica.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "pacientes.cache.compartilhado.habilitado", havingValue = "false", matchIfMissing = true)
+    static class Local {
+
+        @Bean
+        public CacheManager cacheManager(@Value("${pacientes.cache.spec}") String spec) {
+            // Puts e evicts feitos dentro de uma transação só são aplicados após o commit, então um rollback não
+            // deixa no cache um paciente que não foi gravado (nem remove um que continua válido).
+            return new TransactionAwareCacheManagerProxy(caffeine(spec));
+        }
+    }
+
+    /**
+     * Várias réplicas: o Caffeine de cada uma fica na frente de um cache Redis compartilhado, e toda escrita é
+     * anunciada pelo pub/sub do Redis para as demais réplicas descartarem a cópia local.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "pacientes.cache.compartilhado.habilitado", havingValue = "true")
+    static class Compartilhado {
+
+        @Bean
+        public RedisMessageListenerContainer cacheInvalidacaoListenerContainer(RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        public CanalInvalidacaoCache canalInvalidacaoCache(StringRedisTemplate redis,
+                                                           RedisMessageListenerContainer cacheInvalidacaoListenerContainer,
+                                                           @Value("${pacientes.cache.compartilhado.canal}") String canal,
+                                                           ObjectMapper objectMapper) {
+            return new RedisCanalInvalidacaoCache(redis, cacheInvalidacaoListenerContainer, canal, objectMapper);
+        }
+
+        @Bean
+        public CacheManager cacheManager(@Value("${pacientes.cache.compartilhado.spec-local}") String specLocal,
+                                         @Value("${pacientes.cache.compartilhado.ttl}") Duration ttl,
+                                         @Value("${pacientes.cache.compartilhado.prefixo}") String prefixo,
+                                         RedisConnectionFactory connectionFactory,
+                                         CanalInvalidacaoCache canalInvalidacaoCache,
+                                         ObjectMapper objectMapper) {
+            RedisCacheConfiguration pacientes = RedisCacheConfiguration.defaultCacheConfig()
+                    .entryTtl(ttl)
+                    .disableCachingNullValues()
+                    .prefixCacheNameWith(prefixo)
+                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                            new Jackson2JsonRedisSerializer<>(objectMapper, PacienteResponseDTO.class)));
+            RedisCacheManager redis = RedisCacheManager.builder(connectionFactory)
+                    .withCacheConfiguration(PACIENTES, pacientes)
+                    .disableCreateOnMissingCache()
+                    .enableStatistics()
+                    .build();
+            redis.afterPropertiesSet();
+
+            return new TransactionAwareCacheManagerProxy(
+                    new CacheDuasCamadasManager(caffeine(specLocal), redis, canalInvalidacaoCache));
+        }
+
+        @Bean
+        public CacheDuasCamadasMeterBinderProvider cacheDuasCamadasMeterBinderProvider() {
+            return new CacheDuasCamadasMeterBinderProvider();
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package com.sobrevidas.crud_pacientes.controller;
 
+import com.sobrevidas.crud_pacientes.config.FormatosBinariosConfig;
+import com.sobrevidas.crud_pacientes.dto.AlteracoesPacienteDTO;
+import com.sobrevidas.crud_pacientes.dto.CursorPageResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteFiltroDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteLoteResponseDTO;
 import com.sobrevidas.crud_pacientes.dto.PacientePatchDTO;
 import com.sobrevidas.crud_pacientes.dto.PacienteRequestDTO;
 import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResumoDTO;
+import com.sobrevidas.crud_pacientes.dto.SincronizacaoPacientesDTO;
 import com.sobrevidas.crud_pacientes.exception.ApiErrorResponse;
+import com.sobrevidas.crud_pacientes.service.PacienteEventoService;
+import com.sobrevidas.crud_pacientes.service.PacienteExportService;
+import com.sobrevidas.crud_pacientes.service.PacienteLoteService;
 import com.sobrevidas.crud_pacientes.service.PacienteService;
+import com.sobrevidas.crud_pacientes.service.PacienteSincronizacaoService;
+import com.sobrevidas.crud_pacientes.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,9 +26,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.util.List;
@@ -28,23 +45,208 @@ import java.util.List;
 @PreAuthorize("hasRole('USER')")
 public class PacienteController {
 
+    private static final MediaType CBOR_SEQ = MediaType.parseMediaType(FormatosBinariosConfig.APPLICATION_CBOR_SEQ_VALUE);
+    private static final MediaType SMILE = MediaType.parseMediaType(FormatosBinariosConfig.APPLICATION_SMILE_VALUE);
+    private static final List<MediaType> FORMATOS_EXPORTACAO = List.of(MediaType.APPLICATION_NDJSON, CBOR_SEQ, SMILE);
+
     private final PacienteService service;
+    private final PacienteExportService exportService;
+    private final PacienteLoteService loteService;
+    private final PacienteEventoService eventoService;
+    private final PacienteSincronizacaoService sincronizacaoService;
+
+    @Operation(summary = "Lista os pacientes de forma paginada",
+            description = "Retorna uma página de pacientes ordenada por ID. Use o 'proximoCursor' da resposta para buscar a página seguinte.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de pacientes retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Página inalterada desde a ETag enviada em If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, FormatosBinariosConfig.APPLICATION_CBOR_VALUE,
+            FormatosBinariosConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<CursorPageResponseDTO<PacienteResponseDTO>> listarPacientes(
+            @Parameter(description = "Cursor retornado pela página anterior (omitir para a primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de pacientes por página (padrão 50, máximo 500)", example = "50")
+            @RequestParam(required = false) Integer tamanho) {
+        return paginaComETag(service.listarPacientes(cursor, tamanho));
+    }
+
+    @Operation(summary = "Busca pacientes por localidade, fatores de risco e faixa etária",
+            description = "Todos os filtros são opcionais e combinados com E. A paginação segue o mesmo cursor da listagem.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de pacientes retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Página inalterada desde a ETag enviada em If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Filtro, cursor ou tamanho de página inválido",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE,
+            FormatosBinariosConfig.APPLICATION_CBOR_VALUE, FormatosBinariosConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<CursorPageResponseDTO<PacienteResponseDTO>> buscarPacientes(
+            @ParameterObject @Valid PacienteFiltroDTO filtro,
+            @Parameter(description = "Cursor retornado pela página anterior (omitir para a primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de pacientes por página (padrão 50, máximo 500)", example = "50")
+            @RequestParam(required = false) Integer tamanho) {
+        return paginaComETag(service.buscarPacientes(filtro, cursor, tamanho));
+    }
+
+    @Operation(summary = "Lista os pacientes de forma resumida",
+            description = "Mesma paginação da listagem completa, mas cada item traz só id, nome, CPF e fatores de risco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de pacientes retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping(value = "/resumo", produces = {MediaType.APPLICATION_JSON_VALUE,
+            FormatosBinariosConfig.APPLICATION_CBOR_VALUE, FormatosBinariosConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<CursorPageResponseDTO<PacienteResumoDTO>> listarResumos(
+            @Parameter(description = "Cursor retornado pela página anterior (omitir para a primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de pacientes por página (padrão 50, máximo 500)", example = "50")
+            @RequestParam(required = false) Integer tamanho) {
+        return variaPorAccept(service.listarResumos(cursor, tamanho));
+    }
+
+    @Operation(summary = "Busca pacientes de forma resumida",
+            description = "Mesmos filtros e paginação de /pacientes/search, com itens resumidos a id, nome, CPF e fatores de risco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de pacientes retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Filtro, cursor ou tamanho de página inválido",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping(value = "/search/resumo", produces = {MediaType.APPLICATION_JSON_VALUE,
+            FormatosBinariosConfig.APPLICATION_CBOR_VALUE, FormatosBinariosConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<CursorPageResponseDTO<PacienteResumoDTO>> buscarResumos(
+            @ParameterObject @Valid PacienteFiltroDTO filtro,
+            @Parameter(description = "Cursor retornado pela página anterior (omitir para a primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade de pacientes por página (padrão 50, máximo 500)", example = "50")
+            @RequestParam(required = false) Integer tamanho) {
+        return variaPorAccept(service.buscarResumos(filtro, cursor, tamanho));
+    }
+
+    @Operation(summary = "Busca pacientes por nome ou nome da mãe",
+            description = "Busca aproximada: tolera acentos ausentes, erros de digitação e nomes parciais. "
+                    + "Os resultados vêm ordenados por semelhança com o termo.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pacientes encontrados, do mais ao menos semelhante"),
+            @ApiResponse(responseCode = "400", description = "Termo de busca com menos de 3 caracteres",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/search/nome")
+    public ResponseEntity<List<PacienteResponseDTO>> buscarPorNome(
+            @Parameter(description = "Nome ou parte do nome do paciente ou da mãe", required = true, example = "joao silva")
+            @RequestParam String q,
+            @Parameter(description = "Quantidade máxima de resultados (padrão 20, máximo 100)", example = "20")
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(service.buscarPorNome(q, limite));
+    }
 
-    @Operation(summary = "Lista todos os pacientes", description = "Retorna uma lista de todos os pacientes.")
+    @Operation(summary = "Exporta todos os pacientes em NDJSON, CBOR ou Smile",
+            description = "Transmite o cadastro completo, um paciente por item, sem carregar todos os registros em "
+                    + "memória. O formato segue o Accept: NDJSON (padrão, um JSON por linha), application/cbor-seq "
+                    + "(sequência CBOR, RFC 8742) ou application/x-jackson-smile.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de pacientes retornada com sucesso"),
+            @ApiResponse(responseCode = "200", description = "Exportação transmitida com sucesso",
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = PacienteResponseDTO.class)),
+                            @Content(mediaType = FormatosBinariosConfig.APPLICATION_CBOR_SEQ_VALUE,
+                                    schema = @Schema(implementation = PacienteResponseDTO.class)),
+                            @Content(mediaType = FormatosBinariosConfig.APPLICATION_SMILE_VALUE,
+                                    schema = @Schema(implementation = PacienteResponseDTO.class))
+                    }),
             @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
             @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
                     content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
     })
-    @GetMapping
-    public ResponseEntity<List<PacienteResponseDTO>> listarTodosPacientes() {
-        return ResponseEntity.ok(service.listarTodosPacientes());
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE,
+            FormatosBinariosConfig.APPLICATION_CBOR_SEQ_VALUE, FormatosBinariosConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportarPacientes(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType formato = formatoExportacao(accept);
+        StreamingResponseBody body;
+        if (formato.equals(CBOR_SEQ)) {
+            body = exportService::exportarCbor;
+        } else if (formato.equals(SMILE)) {
+            body = exportService::exportarSmile;
+        } else {
+            body = exportService::exportarNdjson;
+        }
+        return ResponseEntity.ok()
+                .contentType(formato)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
     }
 
-    @Operation(summary = "Busca um paciente por ID")
+    @Operation(summary = "Lista as alterações de pacientes desde uma posição",
+            description = "Feed de criações, atualizações e remoções em ordem de publicação. Guarde o 'proximoSince' da "
+                    + "resposta e envie-o como 'since' na próxima chamada; enquanto 'temMais' for verdadeiro há mais "
+                    + "alterações a buscar. O mesmo evento pode ser entregue mais de uma vez: use 'versao' para descartar "
+                    + "repetições.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Alterações retornadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Posição ou tamanho de página inválido",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<AlteracoesPacienteDTO> listarAlteracoes(
+            @Parameter(description = "Última posição já processada (omitir para começar do início)", example = "0")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Quantidade máxima de alterações (padrão 500, máximo 5000)", example = "500")
+            @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(eventoService.listarAlteracoes(since, tamanho));
+    }
+
+    @Operation(summary = "Sincroniza uma cópia local do cadastro",
+            description = "Sem 'since', devolve todo o cadastro; depois, só os pacientes criados ou alterados e os IDs "
+                    + "removidos desde a marca enviada. Guarde o 'proximoSince' da resposta e envie-o como 'since' na "
+                    + "próxima chamada; enquanto 'temMais' for verdadeiro, repita sem esperar. Alterações do último "
+                    + "minuto (pacientes.sync.margem) ficam para a sincronização seguinte. A resposta é comprimida "
+                    + "com gzip quando o cliente envia Accept-Encoding.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Alterações retornadas com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Marca de sincronização ou tamanho de página inválido",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/sync")
+    public ResponseEntity<SincronizacaoPacientesDTO> sincronizar(
+            @Parameter(description = "Marca 'proximoSince' da sincronização anterior (omitir na primeira)")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Quantidade máxima de pacientes alterados (padrão 500, máximo 2000)", example = "500")
+            @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(sincronizacaoService.sincronizar(since, tamanho));
+    }
+
+    @Operation(summary = "Busca um paciente por ID",
+            description = "A resposta traz a versão do paciente na ETag. Com If-None-Match, responde 304 sem corpo se "
+                    + "o paciente não mudou, comparando só a versão (do cache ou da coluna versao), sem carregá-lo.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Paciente encontrado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Paciente inalterado desde a ETag enviada em If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
             @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
                     content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
@@ -54,8 +256,51 @@ public class PacienteController {
     @GetMapping("/{id}")
     public ResponseEntity<PacienteResponseDTO> buscarPacientePorId(
             @Parameter(description = "ID do paciente a ser buscado", required = true, example = "1")
-            @PathVariable Long id) {
-        return ResponseEntity.ok(service.buscarPacientePorId(id));
+            @PathVariable Long id,
+            WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ETags.paciente(service.buscarVersaoPacientePorId(id)))) {
+            return null;
+        }
+        PacienteResponseDTO paciente = service.buscarPacientePorId(id);
+        return ResponseEntity.ok().eTag(ETags.paciente(paciente.versao())).body(paciente);
+    }
+
+    @Operation(summary = "Busca um paciente por CPF",
+            description = "CPFs não cadastrados são respondidos pelo índice em memória, sem consulta ao banco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Paciente encontrado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "CPF fora do formato de 11 dígitos numéricos",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Paciente não encontrado",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/cpf/{cpf}")
+    public ResponseEntity<PacienteResponseDTO> buscarPacientePorCpf(
+            @Parameter(description = "CPF do paciente, só dígitos", required = true, example = "12345678901")
+            @PathVariable String cpf) {
+        return ResponseEntity.ok(service.buscarPacientePorCpf(cpf));
+    }
+
+    @Operation(summary = "Verifica se existe paciente com o CPF",
+            description = "Responde só com o status, sem corpo. CPFs não cadastrados não chegam ao banco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Existe paciente com o CPF"),
+            @ApiResponse(responseCode = "400", description = "CPF fora do formato de 11 dígitos numéricos"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação"),
+            @ApiResponse(responseCode = "404", description = "Não existe paciente com o CPF")
+    })
+    @RequestMapping(value = "/cpf/{cpf}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> verificarCpf(
+            @Parameter(description = "CPF do paciente, só dígitos", required = true, example = "12345678901")
+            @PathVariable String cpf) {
+        return service.existePacienteComCpf(cpf)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
     }
 
     @Operation(summary = "Cria um novo paciente")
@@ -75,13 +320,35 @@ public class PacienteController {
             @Valid @RequestBody PacienteRequestDTO pacienteDTO) {
         PacienteResponseDTO pacienteSalvo = service.salvarPaciente(pacienteDTO);
         URI location = URI.create(String.format("/pacientes/%d", pacienteSalvo.id()));
-        return ResponseEntity.created(location).body(pacienteSalvo);
+        return ResponseEntity.created(location).eTag(ETags.paciente(pacienteSalvo.versao())).body(pacienteSalvo);
+    }
+
+    @Operation(summary = "Cria ou atualiza pacientes em lote",
+            description = "Recebe um array de pacientes (máximo 1000). Pacientes com CPF já cadastrado são atualizados; "
+                    + "itens inválidos são rejeitados individualmente. A resposta traz o resultado de cada item.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; consulte o status de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Conflito de dados (CPF cadastrado por outra requisição durante a gravação)",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<PacienteLoteResponseDTO> salvarPacientesEmLote(
+            @Parameter(description = "Pacientes a serem criados ou atualizados", required = true)
+            @RequestBody List<PacienteRequestDTO> pacientes) {
+        return ResponseEntity.ok(loteService.salvarPacientes(pacientes));
     }
 
     @Operation(summary = "Atualiza um paciente (Substituição Total)",
             description = "Atualiza todos os dados de um paciente existente. Requer o envio do objeto completo.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Paciente atualizado com sucesso"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual do paciente",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos na requisição (erro de validação)",
                     content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
@@ -97,16 +364,20 @@ public class PacienteController {
             @Parameter(description = "ID do paciente a ser atualizado", required = true, example = "1")
             @PathVariable Long id,
             @Parameter(description = "Objeto completo do paciente com os novos dados", required = true)
-            @Valid @RequestBody PacienteRequestDTO pacienteDTO) {
+            @Valid @RequestBody PacienteRequestDTO pacienteDTO,
+            @Parameter(description = "ETag do paciente lido pelo cliente; a atualização só ocorre se ele não mudou", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        PacienteResponseDTO pacienteAtualizado = service.atualizarPaciente(id, pacienteDTO);
-        return ResponseEntity.ok(pacienteAtualizado);
+        PacienteResponseDTO pacienteAtualizado = service.atualizarPaciente(id, pacienteDTO, versaoEsperada(id, ifMatch));
+        return ResponseEntity.ok().eTag(ETags.paciente(pacienteAtualizado.versao())).body(pacienteAtualizado);
     }
 
     @Operation(summary = "Atualiza um paciente (Atualização Parcial)",
             description = "Atualiza apenas os campos fornecidos de um paciente existente. Campos nulos são ignorados.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Paciente atualizado com sucesso"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual do paciente",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos na requisição (erro de validação de formato)",
                     content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
             @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
@@ -122,10 +393,12 @@ public class PacienteController {
             @Parameter(description = "ID do paciente a ser atualizado", required = true, example = "1")
             @PathVariable Long id,
             @Parameter(description = "Objeto do paciente com os campos a serem atualizados", required = true)
-            @Valid @RequestBody PacientePatchDTO patchDTO) {
+            @Valid @RequestBody PacientePatchDTO patchDTO,
+            @Parameter(description = "ETag do paciente lido pelo cliente; a atualização só ocorre se ele não mudou", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        PacienteResponseDTO pacienteAtualizado = service.atualizarPacienteParcial(id, patchDTO);
-        return ResponseEntity.ok(pacienteAtualizado);
+        PacienteResponseDTO pacienteAtualizado = service.atualizarPacienteParcial(id, patchDTO, versaoEsperada(id, ifMatch));
+        return ResponseEntity.ok().eTag(ETags.paciente(pacienteAtualizado.versao())).body(pacienteAtualizado);
     }
 
 
@@ -146,4 +419,50 @@ public class PacienteController {
         service.removerPaciente(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // O Spring compara a ETag com If-None-Match e, se coincidirem, responde 304 sem serializar a página.
+    private static ResponseEntity<CursorPageResponseDTO<PacienteResponseDTO>> paginaComETag(
+            CursorPageResponseDTO<PacienteResponseDTO> pagina) {
+        return ResponseEntity.ok().eTag(ETags.pagina(pagina)).varyBy(HttpHeaders.ACCEPT).body(pagina);
+    }
+
+    /**
+     * Versão que o If-Match exige, ou -1 quando nenhuma ETag dele pode corresponder. Com uma lista, vale a que for a
+     * versão atual: só nesse caso, raro, a versão é consultada antes (do cache ou só da coluna versao), e uma
+     * gravação concorrente depois disso ainda é barrada pelo serviço.
+     */
+    private Long versaoEsperada(Long id, String ifMatch) {
+        List<Long> versoes = ETags.versoesEsperadas(ifMatch);
+        if (versoes == null) {
+            return null;
+        }
+        if (versoes.size() <= 1) {
+            return versoes.isEmpty() ? -1L : versoes.getFirst();
+        }
+        long atual = service.buscarVersaoPacientePorId(id);
+        return versoes.contains(atual) ? atual : -1L;
+    }
+
+    /**
+     * Primeiro formato de exportação presente no Accept, na ordem do cabeçalho (sem considerar os pesos q). Um Accept
+     * genérico, ou ausente, fica com o NDJSON.
+     */
+    private static MediaType formatoExportacao(String accept) {
+        List<MediaType> aceitos = accept == null || accept.isBlank()
+                ? List.of(MediaType.ALL)
+                : MediaType.parseMediaTypes(accept);
+        for (MediaType aceito : aceitos) {
+            for (MediaType formato : FORMATOS_EXPORTACAO) {
+                if (aceito.includes(formato)) {
+                    return formato;
+                }
+            }
+        }
+        return MediaType.APPLICATION_NDJSON;
+    }
+
+    // A mesma URL responde em JSON, CBOR ou Smile: caches intermediários precisam separar as representações.
+    private static <T> ResponseEntity<T> variaPorAccept(T corpo) {
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(corpo);
+    }
+}
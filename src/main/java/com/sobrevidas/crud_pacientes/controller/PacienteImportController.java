@@ -0,0 +1,91 @@
+package com.sobrevidas.crud_pacientes.controller;
+
+import com.sobrevidas.crud_pacientes.dto.ImportacaoRejeicaoDTO;
+import com.sobrevidas.crud_pacientes.dto.ImportacaoStatusDTO;
+import com.sobrevidas.crud_pacientes.exception.ApiErrorResponse;
+import com.sobrevidas.crud_pacientes.service.ImportacaoJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+@Tag(name = "Importações", description = "Importação assíncrona de pacientes a partir de arquivos CSV")
+@RestController
+@RequestMapping("pacientes/imports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class PacienteImportController {
+
+    private final ImportacaoJobService service;
+
+    @Operation(summary = "Envia um CSV para importação em segundo plano",
+            description = "O arquivo é salvo em disco e a importação roda de forma assíncrona. Acompanhe pelo endpoint de status.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Importação aceita e agendada"),
+            @ApiResponse(responseCode = "400", description = "Arquivo ausente ou vazio",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Limite de importações simultâneas atingido",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportacaoStatusDTO> iniciarImportacao(
+            @Parameter(description = "Arquivo CSV no mesmo formato de pacientes.csv", required = true)
+            @RequestPart("arquivo") MultipartFile arquivo) throws IOException {
+        ImportacaoStatusDTO status = service.iniciar(arquivo);
+        URI location = URI.create(String.format("/pacientes/imports/%s", status.id()));
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @Operation(summary = "Consulta o progresso de uma importação",
+            description = "Retorna linhas processadas, vazão, percentual lido, tempo restante estimado e erros.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status da importação retornado com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Importação não encontrada",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportacaoStatusDTO> buscarStatusImportacao(
+            @Parameter(description = "ID da importação", required = true)
+            @PathVariable UUID id) {
+        return ResponseEntity.ok(service.buscarStatus(id));
+    }
+
+    @Operation(summary = "Lista as linhas rejeitadas de uma importação",
+            description = "Retorna as linhas enviadas para a quarentena, com número da linha, motivo e conteúdo original.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Linhas rejeitadas retornadas com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Usuário não autorizado"),
+            @ApiResponse(responseCode = "403", description = "Usuário não tem a permissão necessária para efetuar a operação",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Importação não encontrada",
+                    content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/{id}/rejeicoes")
+    public ResponseEntity<List<ImportacaoRejeicaoDTO>> listarRejeicoes(
+            @Parameter(description = "ID da importação", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Quantidade máxima de linhas retornadas (máximo 1000)", example = "100")
+            @RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(service.listarRejeicoes(id, Math.clamp(limite, 1, 1000)));
+    }
+}
@@ -0,0 +1,16 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record AlteracoesPacienteDTO(
+        @Schema(description = "Alterações posteriores a 'since', em ordem de posição")
+        List<EventoPacienteDTO> alteracoes,
+
+        @Schema(description = "Valor de 'since' para a próxima consulta (igual ao recebido quando não houve alterações)", example = "1042")
+        long proximoSince,
+
+        @Schema(description = "Indica se já existem mais alterações além desta página", example = "false")
+        boolean temMais
+) {}
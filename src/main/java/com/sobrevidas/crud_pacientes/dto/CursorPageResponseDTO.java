@@ -0,0 +1,16 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record CursorPageResponseDTO<T>(
+        @Schema(description = "Itens da página atual")
+        List<T> conteudo,
+
+        @Schema(description = "Cursor opaco para buscar a próxima página (nulo quando não há mais itens)", example = "MTAw")
+        String proximoCursor,
+
+        @Schema(description = "Quantidade de itens retornados nesta página", example = "50")
+        int tamanhoPagina
+) {}
@@ -0,0 +1,23 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record EventoPacienteDTO(
+        @Schema(description = "Posição do evento no feed; use a última recebida como 'since' na próxima consulta", example = "1042")
+        Long posicao,
+
+        @Schema(description = "ID do paciente alterado", example = "1")
+        Long pacienteId,
+
+        @Schema(description = "Tipo da alteração", example = "ATUALIZADO")
+        TipoEventoPaciente tipo,
+
+        @Schema(description = "Versão do paciente após a alteração (a mesma da ETag); nula na remoção", example = "3")
+        Long versao,
+
+        @Schema(description = "Momento da alteração", example = "2025-01-31T14:05:12.345Z")
+        Instant ocorridoEm
+) {}
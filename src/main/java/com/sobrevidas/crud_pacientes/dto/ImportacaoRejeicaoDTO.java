@@ -0,0 +1,14 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record ImportacaoRejeicaoDTO(
+        @Schema(description = "Número da linha no arquivo (a linha 1 é o cabeçalho)", example = "1532")
+        long linha,
+
+        @Schema(description = "Motivo da rejeição", example = "DateTimeParseException: Text '1990-13-45' could not be parsed")
+        String motivo,
+
+        @Schema(description = "Conteúdo original da linha rejeitada")
+        String conteudo
+) {}
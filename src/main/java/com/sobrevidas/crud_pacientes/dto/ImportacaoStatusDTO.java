@@ -0,0 +1,41 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportacaoStatusDTO(
+        @Schema(description = "Identificador da importação", example = "3f1c9a52-4b1e-4f5e-9a0e-0c1d2e3f4a5b")
+        UUID id,
+
+        @Schema(description = "Situação da importação", example = "EM_ANDAMENTO")
+        String status,
+
+        @Schema(description = "Nome do arquivo enviado", example = "pacientes.csv")
+        String arquivo,
+
+        @Schema(description = "Linhas já gravadas no banco", example = "250000")
+        long linhasProcessadas,
+
+        @Schema(description = "Linhas rejeitadas e enviadas para a quarentena", example = "12")
+        long linhasRejeitadas,
+
+        @Schema(description = "Vazão média desde o início, em linhas por segundo", example = "41250.5")
+        double linhasPorSegundo,
+
+        @Schema(description = "Percentual do arquivo já lido", example = "37.5")
+        double percentualConcluido,
+
+        @Schema(description = "Tempo restante estimado, em segundos", example = "12")
+        Long segundosRestantes,
+
+        @Schema(description = "Mensagem de erro, quando a importação falhou")
+        String erro,
+
+        Instant criadoEm,
+        Instant iniciadoEm,
+        Instant finalizadoEm
+) {}
@@ -0,0 +1,35 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record PacienteFiltroDTO(
+        @Schema(description = "Cidade (igualdade exata)", example = "Goiânia")
+        String cidade,
+
+        @Schema(description = "Bairro (igualdade exata)", example = "Setor Central")
+        String bairro,
+
+        @Schema(description = "Estado (Sigla UF)", example = "GO")
+        String estado,
+
+        @Schema(description = "Filtra por pacientes tabagistas (true) ou não tabagistas (false)", example = "true")
+        Boolean ehTabagista,
+
+        @Schema(description = "Filtra por pacientes etilistas (true) ou não etilistas (false)", example = "false")
+        Boolean ehEtilista,
+
+        @Schema(description = "Filtra por pacientes com (true) ou sem (false) lesão suspeita", example = "true")
+        Boolean temLesaoSuspeita,
+
+        @Schema(description = "Idade mínima, em anos completos", example = "40")
+        @Min(value = 0, message = "A idade mínima não pode ser negativa")
+        @Max(value = 150, message = "A idade mínima não pode ser maior que 150")
+        Integer idadeMinima,
+
+        @Schema(description = "Idade máxima, em anos completos", example = "70")
+        @Min(value = 0, message = "A idade máxima não pode ser negativa")
+        @Max(value = 150, message = "A idade máxima não pode ser maior que 150")
+        Integer idadeMaxima
+) {}
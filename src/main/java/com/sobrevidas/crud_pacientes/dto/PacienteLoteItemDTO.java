@@ -0,0 +1,24 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PacienteLoteItemDTO(
+        @Schema(description = "Posição do item no array enviado (começando em 0)", example = "0")
+        int indice,
+
+        @Schema(description = "CPF informado no item", example = "12345678901")
+        String cpf,
+
+        @Schema(description = "Resultado do item: CRIADO, ATUALIZADO ou REJEITADO", example = "CRIADO")
+        String status,
+
+        @Schema(description = "ID do paciente criado ou atualizado", example = "1")
+        Long id,
+
+        @Schema(description = "Motivos da rejeição, por campo", example = "{\"email\": \"Formato de email inválido\"}")
+        Map<String, String> erros
+) {}
@@ -0,0 +1,19 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record PacienteLoteResponseDTO(
+        @Schema(description = "Pacientes novos criados", example = "480")
+        int criados,
+
+        @Schema(description = "Pacientes já existentes (mesmo CPF) que foram atualizados", example = "15")
+        int atualizados,
+
+        @Schema(description = "Itens rejeitados por erro de validação ou CPF repetido no lote", example = "5")
+        int rejeitados,
+
+        @Schema(description = "Resultado de cada item, na ordem do array enviado")
+        List<PacienteLoteItemDTO> itens
+) {}
@@ -0,0 +1,13 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record PacienteRemovidoDTO(
+        @Schema(description = "ID do paciente removido", example = "42")
+        Long id,
+
+        @Schema(description = "Momento da remoção", example = "2024-05-01T12:00:00Z")
+        Instant removidoEm
+) {}
@@ -1,5 +1,6 @@
 package com.sobrevidas.crud_pacientes.dto;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 public record PacienteResponseDTO(
@@ -23,5 +24,8 @@ public record PacienteResponseDTO(
         Boolean ehTabagista,
         Boolean ehEtilista,
         Boolean temLesaoSuspeita,
-        Boolean participaSmartMonitor
+        Boolean participaSmartMonitor,
+        Long versao,
+        Instant criadoEm,
+        Instant atualizadoEm
 ) {}
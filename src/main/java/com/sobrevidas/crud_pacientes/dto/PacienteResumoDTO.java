@@ -0,0 +1,21 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Linha das listagens resumidas: só identificação e fatores de risco, lida direto do banco sem carregar a entidade.
+ */
+public record PacienteResumoDTO(
+        @Schema(example = "1")
+        Long id,
+
+        @Schema(example = "Maria da Silva")
+        String nome,
+
+        @Schema(example = "12345678901")
+        String cpf,
+
+        Boolean ehTabagista,
+        Boolean ehEtilista,
+        Boolean temLesaoSuspeita
+) {}
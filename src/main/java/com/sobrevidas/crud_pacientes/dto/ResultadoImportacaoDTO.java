@@ -0,0 +1,14 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record ResultadoImportacaoDTO(
+        @Schema(description = "Pacientes novos inseridos", example = "980")
+        long inseridos,
+
+        @Schema(description = "Pacientes já existentes (mesmo CPF) que foram atualizados", example = "15")
+        long atualizados,
+
+        @Schema(description = "Linhas descartadas (dados inválidos ou CPF repetido no próprio arquivo)", example = "5")
+        long rejeitados
+) {}
@@ -0,0 +1,19 @@
+package com.sobrevidas.crud_pacientes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record SincronizacaoPacientesDTO(
+        @Schema(description = "Pacientes criados ou alterados desde a marca enviada, em ordem de atualização")
+        List<PacienteResponseDTO> alterados,
+
+        @Schema(description = "Pacientes removidos desde a marca enviada (vazio na primeira sincronização)")
+        List<PacienteRemovidoDTO> removidos,
+
+        @Schema(description = "Marca opaca a enviar como 'since' na próxima sincronização", example = "MTcxNDU2NDgwMDAwMDAwMDo0Mg")
+        String proximoSince,
+
+        @Schema(description = "Indica se há mais alterações a buscar imediatamente com 'proximoSince'", example = "false")
+        boolean temMais
+) {}
@@ -0,0 +1,25 @@
+package com.sobrevidas.crud_pacientes.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Última posição atribuída pelo relay do outbox. A linha é bloqueada durante cada publicação, o que serializa os
+ * relays de todas as réplicas e garante que as posições sejam publicadas em ordem.
+ */
+@Entity
+@Table(name = "cursores_publicacao")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPublicacao {
+
+    @Id
+    private String nome;
+
+    private long ultimaPosicao;
+}
@@ -0,0 +1,27 @@
+package com.sobrevidas.crud_pacientes.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "importacao_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportacaoCheckpoint {
+
+    @Id
+    private String chave;
+
+    private long ultimoRegistro;
+    private long linhasGravadas;
+    private long linhasRejeitadas;
+    private boolean concluida;
+    private Instant atualizadoEm;
+}
@@ -0,0 +1,34 @@
+package com.sobrevidas.crud_pacientes.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "importacao_rejeicoes", indexes = @Index(name = "idx_importacao_rejeicoes_chave", columnList = "chave, linha"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportacaoRejeicao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "importacao_rejeicoes_seq")
+    @SequenceGenerator(name = "importacao_rejeicoes_seq", sequenceName = "importacao_rejeicoes_seq", allocationSize = 50)
+    private Long id;
+
+    private String chave;
+    private long linha;
+
+    @Column(length = 500)
+    private String motivo;
+
+    @Column(length = 4000)
+    private String conteudo;
+
+    private Instant criadoEm;
+}
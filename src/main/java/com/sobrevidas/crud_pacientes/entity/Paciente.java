@@ -5,11 +5,22 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "pacientes")
+@Table(name = "pacientes", indexes = {
+        // Busca por localidade (GET /pacientes/search): prefixos estado, estado+cidade e estado+cidade+bairro,
+        // com o id no fim para a paginação por cursor sair na ordem do índice.
+        @Index(name = "idx_pacientes_localidade", columnList = "estado, cidade, bairro, id"),
+        @Index(name = "idx_pacientes_data_nascimento", columnList = "data_nascimento"),
+        // Sincronização (GET /pacientes/sync): paginação por (atualizado_em, id) a partir da marca d'água.
+        @Index(name = "idx_pacientes_atualizado_em", columnList = "atualizado_em, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +28,8 @@ import java.time.LocalDate;
 public class Paciente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pacientes_seq")
+    @SequenceGenerator(name = "pacientes_seq", sequenceName = "pacientes_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -42,4 +54,24 @@ public class Paciente {
     private Boolean ehEtilista;
     private Boolean temLesaoSuspeita;
     private Boolean participaSmartMonitor;
+
+    // Incrementada pelo Hibernate a cada UPDATE; é a ETag do paciente na API. O default cobre linhas já
+    // existentes quando a coluna é criada e os INSERTs do COPY, que não a informam.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long versao;
+
+    // Preenchidas pelo Hibernate no INSERT e a cada UPDATE. O default cobre as linhas já existentes quando as
+    // colunas são criadas e os INSERTs do COPY, que depois grava atualizado_em de todas as linhas mescladas logo
+    // antes do commit (ver PacienteCopyImportService).
+    @CreationTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(nullable = false, updatable = false)
+    private Instant criadoEm;
+
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(nullable = false)
+    private Instant atualizadoEm;
 }
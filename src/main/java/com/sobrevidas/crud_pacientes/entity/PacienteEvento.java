@@ -0,0 +1,47 @@
+package com.sobrevidas.crud_pacientes.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outbox das alterações de pacientes: gravado na mesma transação da alteração e publicado depois pelo
+ * {@code RelayEventosPaciente}, que atribui a {@code posicao} na ordem de publicação.
+ */
+@Entity
+@Table(name = "pacientes_eventos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PacienteEvento {
+
+    // Sem blocos de ids por réplica (allocationSize 1): o nextval roda dentro da transação, depois que a escrita
+    // bloqueou a linha do paciente, então dois eventos do mesmo paciente têm ids na ordem em que ocorreram, mesmo
+    // vindo de réplicas diferentes. É essa a ordem em que o relay os publica.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pacientes_eventos_seq")
+    @SequenceGenerator(name = "pacientes_eventos_seq", sequenceName = "pacientes_eventos_seq", allocationSize = 1)
+    private Long id;
+
+    // Nula até o evento ser publicado. É a posição usada em GET /pacientes/changes?since=
+    @Column(unique = true)
+    private Long posicao;
+
+    @Column(nullable = false)
+    private Long pacienteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoEventoPaciente tipo;
+
+    // Versão do paciente após a alteração; nula na remoção.
+    private Long versao;
+
+    @Column(nullable = false)
+    private Instant ocorridoEm;
+}
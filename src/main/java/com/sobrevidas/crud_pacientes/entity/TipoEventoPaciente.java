@@ -0,0 +1,7 @@
+package com.sobrevidas.crud_pacientes.entity;
+
+public enum TipoEventoPaciente {
+    CRIADO,
+    ATUALIZADO,
+    REMOVIDO
+}
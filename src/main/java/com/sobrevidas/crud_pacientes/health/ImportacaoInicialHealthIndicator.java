@@ -0,0 +1,38 @@
+package com.sobrevidas.crud_pacientes.health;
+
+import com.sobrevidas.crud_pacientes.service.ImportacaoInicialService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expõe o estado da importação inicial em {@code /actuator/health} (componente {@code importacaoInicial}).
+ * Por padrão é apenas informativo: a API atende normalmente enquanto o CSV é importado. Com
+ * {@code pacientes.importacao.inicial.bloquear-prontidao=true} o componente fica OUT_OF_SERVICE até a importação
+ * terminar, tirando a instância do balanceador pela probe de readiness.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportacaoInicialHealthIndicator implements HealthIndicator {
+
+    private final ImportacaoInicialService importacaoInicialService;
+
+    @Value("${pacientes.importacao.inicial.bloquear-prontidao:false}")
+    private boolean bloquearProntidao;
+
+    @Override
+    public Health health() {
+        ImportacaoInicialService.Estado estado = importacaoInicialService.getEstado();
+        boolean emAndamento = estado == ImportacaoInicialService.Estado.AGUARDANDO
+                || estado == ImportacaoInicialService.Estado.EM_ANDAMENTO;
+
+        Health.Builder builder = bloquearProntidao && emAndamento ? Health.outOfService() : Health.up();
+        builder.withDetail("estado", estado);
+        if (importacaoInicialService.getErro() != null) {
+            builder.withDetail("erro", importacaoInicialService.getErro());
+        }
+        return builder.build();
+    }
+}
@@ -6,18 +6,35 @@ import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
 import com.sobrevidas.crud_pacientes.entity.Paciente;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
 
 @Mapper(componentModel = "spring")
 public interface PacienteMapper {
 
+    // id, versao e os carimbos de data são do banco/Hibernate: nenhum DTO de entrada pode sobrescrevê-los.
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    @Mapping(target = "criadoEm", ignore = true)
+    @Mapping(target = "atualizadoEm", ignore = true)
     Paciente toEntity(PacienteRequestDTO dto);
 
     PacienteResponseDTO toResponseDTO(Paciente entity);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    @Mapping(target = "criadoEm", ignore = true)
+    @Mapping(target = "atualizadoEm", ignore = true)
     void updateEntityFromDto(PacienteRequestDTO dto, @MappingTarget Paciente entity);
 
-    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    // O PATCH só cobre os indicadores clínicos; os demais campos ficam de fora de propósito.
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+            unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "versao", ignore = true)
+    @Mapping(target = "criadoEm", ignore = true)
+    @Mapping(target = "atualizadoEm", ignore = true)
     void patchEntityFromDto(PacientePatchDTO dto, @MappingTarget Paciente entity);
 }
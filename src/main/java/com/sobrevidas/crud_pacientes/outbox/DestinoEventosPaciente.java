@@ -0,0 +1,18 @@
+package com.sobrevidas.crud_pacientes.outbox;
+
+import com.sobrevidas.crud_pacientes.dto.EventoPacienteDTO;
+
+import java.util.List;
+
+/**
+ * Para onde o {@link RelayEventosPaciente} envia os eventos publicados (fila, tópico, webhook...). Todo bean desta
+ * interface recebe cada lote, em ordem de posição.
+ *
+ * <p>A entrega é pelo menos uma vez: se a transação do relay falhar depois do envio, o lote é reenviado com as
+ * mesmas posições na próxima execução. Quem consome deve descartar posições já processadas. Uma exceção aqui
+ * desfaz a publicação do lote, que é tentada de novo no próximo ciclo.
+ */
+public interface DestinoEventosPaciente {
+
+    void publicar(List<EventoPacienteDTO> eventos);
+}
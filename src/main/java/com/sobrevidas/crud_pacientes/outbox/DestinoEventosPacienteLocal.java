@@ -0,0 +1,26 @@
+package com.sobrevidas.crud_pacientes.outbox;
+
+import com.sobrevidas.crud_pacientes.dto.EventoPacienteDTO;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Destino dentro do próprio processo: repassa cada lote como {@link EventosPacientePublicados} para os
+ * {@code @EventListener} da aplicação, de forma síncrona, ainda dentro da transação do relay.
+ */
+@Component
+public class DestinoEventosPacienteLocal implements DestinoEventosPaciente {
+
+    private final ApplicationEventPublisher publisher;
+
+    public DestinoEventosPacienteLocal(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void publicar(List<EventoPacienteDTO> eventos) {
+        publisher.publishEvent(new EventosPacientePublicados(eventos));
+    }
+}
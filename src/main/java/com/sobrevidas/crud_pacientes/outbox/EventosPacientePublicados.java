@@ -0,0 +1,11 @@
+package com.sobrevidas.crud_pacientes.outbox;
+
+import com.sobrevidas.crud_pacientes.dto.EventoPacienteDTO;
+
+import java.util.List;
+
+/**
+ * Lote publicado pelo relay, entregue aos {@code @EventListener} desta aplicação por {@link DestinoEventosPacienteLocal}.
+ */
+public record EventosPacientePublicados(List<EventoPacienteDTO> eventos) {
+}
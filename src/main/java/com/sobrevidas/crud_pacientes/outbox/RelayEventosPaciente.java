@@ -0,0 +1,94 @@
+package com.sobrevidas.crud_pacientes.outbox;
+
+import com.sobrevidas.crud_pacientes.dto.EventoPacienteDTO;
+import com.sobrevidas.crud_pacientes.entity.CursorPublicacao;
+import com.sobrevidas.crud_pacientes.entity.PacienteEvento;
+import com.sobrevidas.crud_pacientes.repository.CursorPublicacaoRepository;
+import com.sobrevidas.crud_pacientes.repository.PacienteEventoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Publica os eventos do outbox ({@code pacientes_eventos}) em lotes, na ordem em que foram gravados.
+ *
+ * <p>Cada lote roda em uma transação que bloqueia o {@link CursorPublicacao}, lê os eventos ainda sem posição,
+ * numera-os a partir da última posição, envia-os aos {@link DestinoEventosPaciente} e grava o cursor. A posição é
+ * atribuída na publicação, e não na gravação, porque transações concorrentes podem confirmar os seus eventos fora
+ * da ordem dos ids: quem lê {@code /pacientes/changes?since=} nunca vê uma posição menor aparecer depois de uma maior.
+ * Com várias réplicas, o bloqueio do cursor faz os relays se revezarem.
+ */
+@Component
+@ConditionalOnProperty(name = "pacientes.eventos.relay.habilitado", havingValue = "true", matchIfMissing = true)
+public class RelayEventosPaciente {
+
+    private static final Logger log = LoggerFactory.getLogger(RelayEventosPaciente.class);
+    static final String CURSOR = "pacientes_eventos";
+
+    private final PacienteEventoRepository eventoRepository;
+    private final CursorPublicacaoRepository cursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<DestinoEventosPaciente> destinos;
+    private final int tamanhoLote;
+
+    public RelayEventosPaciente(PacienteEventoRepository eventoRepository,
+                                CursorPublicacaoRepository cursorRepository,
+                                TransactionTemplate transactionTemplate,
+                                List<DestinoEventosPaciente> destinos,
+                                @Value("${pacientes.eventos.relay.tamanho-lote:500}") int tamanhoLote) {
+        this.eventoRepository = eventoRepository;
+        this.cursorRepository = cursorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.destinos = destinos;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Scheduled(initialDelayString = "${pacientes.eventos.relay.intervalo:1s}",
+            fixedDelayString = "${pacientes.eventos.relay.intervalo:1s}")
+    public void publicarPendentes() {
+        try {
+            int publicados;
+            do {
+                publicados = publicarLote();
+            } while (publicados == tamanhoLote);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao publicar eventos de pacientes; nova tentativa no próximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return quantidade de eventos publicados (menor que o tamanho do lote quando não há mais pendentes)
+     */
+    int publicarLote() {
+        Integer publicados = transactionTemplate.execute(status -> {
+            CursorPublicacao cursor = cursorRepository.bloquear(CURSOR)
+                    .orElseGet(() -> cursorRepository.saveAndFlush(new CursorPublicacao(CURSOR, 0)));
+            List<PacienteEvento> pendentes = eventoRepository.findByPosicaoIsNullOrderByIdAsc(Limit.of(tamanhoLote));
+            if (pendentes.isEmpty()) {
+                return 0;
+            }
+
+            long posicao = cursor.getUltimaPosicao();
+            for (PacienteEvento evento : pendentes) {
+                evento.setPosicao(++posicao);
+            }
+            cursor.setUltimaPosicao(posicao);
+            eventoRepository.flush();
+
+            List<EventoPacienteDTO> lote = pendentes.stream()
+                    .map(evento -> new EventoPacienteDTO(evento.getPosicao(), evento.getPacienteId(), evento.getTipo(),
+                            evento.getVersao(), evento.getOcorridoEm()))
+                    .toList();
+            destinos.forEach(destino -> destino.publicar(lote));
+            return pendentes.size();
+        });
+        return publicados == null ? 0 : publicados;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sobrevidas.crud_pacientes.repository;
+
+import com.sobrevidas.crud_pacientes.entity.CursorPublicacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CursorPublicacaoRepository extends JpaRepository<CursorPublicacao, String> {
+
+    // FOR UPDATE nativo: com @Lock(PESSIMISTIC_WRITE) o dialeto do PostgreSQL gera FOR NO KEY UPDATE, que o H2 dos
+    // testes não aceita. Para uma linha que só tem o cursor atualizado, os dois bloqueiam da mesma forma.
+    @Query(value = "SELECT * FROM cursores_publicacao WHERE nome = :nome FOR UPDATE", nativeQuery = true)
+    Optional<CursorPublicacao> bloquear(@Param("nome") String nome);
+
+}
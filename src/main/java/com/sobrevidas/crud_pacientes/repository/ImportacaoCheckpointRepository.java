@@ -0,0 +1,8 @@
+package com.sobrevidas.crud_pacientes.repository;
+
+import com.sobrevidas.crud_pacientes.entity.ImportacaoCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImportacaoCheckpointRepository extends JpaRepository<ImportacaoCheckpoint, String> {
+
+}
@@ -0,0 +1,13 @@
+package com.sobrevidas.crud_pacientes.repository;
+
+import com.sobrevidas.crud_pacientes.entity.ImportacaoRejeicao;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ImportacaoRejeicaoRepository extends JpaRepository<ImportacaoRejeicao, Long> {
+
+    List<ImportacaoRejeicao> findByChaveOrderByLinhaAsc(String chave, Limit limit);
+
+}
@@ -0,0 +1,46 @@
+package com.sobrevidas.crud_pacientes.repository;
+
+import com.sobrevidas.crud_pacientes.dto.PacienteRemovidoDTO;
+import com.sobrevidas.crud_pacientes.entity.PacienteEvento;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface PacienteEventoRepository extends JpaRepository<PacienteEvento, Long> {
+
+    // Pendentes de publicação, na ordem em que foram gravados.
+    List<PacienteEvento> findByPosicaoIsNullOrderByIdAsc(Limit limit);
+
+    // Um evento por paciente em uma só instrução, com a versão gravada e o id tirado da sequência linha a linha.
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO pacientes_eventos (id, paciente_id, tipo, versao, ocorrido_em)
+            SELECT nextval('pacientes_eventos_seq'), p.id, :tipo, p.versao, :ocorridoEm
+            FROM pacientes p
+            WHERE p.id IN (:ids)
+            """, nativeQuery = true)
+    int registrarPorPaciente(@Param("tipo") String tipo,
+                             @Param("ids") Collection<Long> ids,
+                             @Param("ocorridoEm") Instant ocorridoEm);
+
+    <T> List<T> findByPosicaoGreaterThanOrderByPosicaoAsc(Long posicao, Limit limit, Class<T> tipo);
+
+    // As remoções apagam a linha do paciente; o evento REMOVIDO é o que sobra delas para a sincronização.
+    @Query("""
+            select new com.sobrevidas.crud_pacientes.dto.PacienteRemovidoDTO(e.pacienteId, e.ocorridoEm)
+            from PacienteEvento e
+            where e.tipo = :tipo and e.ocorridoEm > :desde and e.ocorridoEm <= :ate
+            order by e.ocorridoEm, e.pacienteId
+            """)
+    List<PacienteRemovidoDTO> buscarRemocoes(@Param("tipo") TipoEventoPaciente tipo,
+                                             @Param("desde") Instant desde,
+                                             @Param("ate") Instant ate);
+
+}
@@ -1,10 +1,75 @@
 package com.sobrevidas.crud_pacientes.repository;
 
 import com.sobrevidas.crud_pacientes.entity.Paciente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface PacienteRepository extends JpaRepository<Paciente, Long> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PacienteRepository extends JpaRepository<Paciente, Long>, JpaSpecificationExecutor<Paciente> {
 
     boolean existsByCpf(String cpf);
 
+    Optional<Paciente> findByCpf(String cpf);
+
+    @Query("select p.versao from Paciente p where p.id = :id")
+    Optional<Long> buscarVersaoPorId(@Param("id") Long id);
+
+    List<Paciente> findByCpfIn(Collection<String> cpfs);
+
+    /**
+     * Página da listagem já no formato de saída: com um record em {@code tipo}, o Spring Data gera um
+     * {@code select new tipo(...)} só com as colunas dele, sem entidades gerenciadas nem snapshot para dirty checking.
+     */
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit, Class<T> tipo);
+
+    /**
+     * Pacientes alterados depois da marca ({@code atualizadoEm}, id) e até {@code ate}, na ordem do índice
+     * {@code idx_pacientes_atualizado_em}. Como na listagem, um record em {@code tipo} vira um {@code select new}.
+     */
+    @Query("""
+            select p from Paciente p
+            where (p.atualizadoEm > :desde or (p.atualizadoEm = :desde and p.id > :ultimoId))
+              and p.atualizadoEm <= :ate
+            order by p.atualizadoEm, p.id
+            """)
+    <T> List<T> buscarAlteradosDesde(@Param("desde") Instant desde, @Param("ultimoId") long ultimoId,
+                                     @Param("ate") Instant ate, Limit limit, Class<T> tipo);
+
+    String TAMANHO_FETCH_EXPORTACAO = "500";
+
+    @Query("select p from Paciente p order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TAMANHO_FETCH_EXPORTACAO),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Paciente> streamTodosOrdenadosPorId();
+
+    @Query("select p.cpf from Paciente p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TAMANHO_FETCH_EXPORTACAO))
+    Stream<String> streamCpfs();
+
+    // Termo já normalizado (minúsculo e sem acentos). "<%" e word_similarity usam os índices GIN de trigramas
+    // criados em db/indices-postgresql.sql, e a expressão precisa ser idêntica à dos índices.
+    String BUSCA_POR_NOME_SEMELHANTE = """
+            SELECT p.* FROM pacientes p
+            WHERE :termo <% f_unaccent(lower(p.nome)) OR :termo <% f_unaccent(lower(p.nome_mae))
+            ORDER BY greatest(word_similarity(:termo, f_unaccent(lower(p.nome))),
+                              word_similarity(:termo, f_unaccent(lower(p.nome_mae)))) DESC, p.id
+            LIMIT :limite
+            """;
+
+    @Query(value = BUSCA_POR_NOME_SEMELHANTE, nativeQuery = true)
+    List<Paciente> buscarPorNomeSemelhante(@Param("termo") String termo, @Param("limite") int limite);
 }
@@ -0,0 +1,68 @@
+package com.sobrevidas.crud_pacientes.repository;
+
+import com.sobrevidas.crud_pacientes.dto.PacienteFiltroDTO;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros da busca de pacientes. Cada critério só entra na consulta quando informado, e todos usam igualdade ou
+ * intervalo sobre colunas indexadas em {@link Paciente} (ou nos índices parciais de {@code db/indices-postgresql.sql}).
+ */
+public final class PacienteSpecifications {
+
+    private PacienteSpecifications() {
+    }
+
+    public static Specification<Paciente> comFiltro(PacienteFiltroDTO filtro, long aposId, LocalDate hoje) {
+        return Specification.allOf(
+                idMaiorQue(aposId),
+                igual("estado", filtro.estado()),
+                igual("cidade", filtro.cidade()),
+                igual("bairro", filtro.bairro()),
+                flag("ehTabagista", filtro.ehTabagista()),
+                flag("ehEtilista", filtro.ehEtilista()),
+                flag("temLesaoSuspeita", filtro.temLesaoSuspeita()),
+                idadeMinima(filtro.idadeMinima(), hoje),
+                idadeMaxima(filtro.idadeMaxima(), hoje));
+    }
+
+    static Specification<Paciente> idMaiorQue(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    static Specification<Paciente> igual(String atributo, String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(atributo), valor);
+    }
+
+    static Specification<Paciente> flag(String atributo, Boolean valor) {
+        if (valor == null) {
+            return null;
+        }
+        // Literal em vez de parâmetro: o PostgreSQL só usa um índice parcial (WHERE tem_lesao_suspeita) quando
+        // consegue provar o predicado no plano, o que não acontece com "= $1" em planos genéricos.
+        return (root, query, cb) -> valor ? cb.isTrue(root.get(atributo)) : cb.isFalse(root.get(atributo));
+    }
+
+    static Specification<Paciente> idadeMinima(Integer anos, LocalDate hoje) {
+        if (anos == null) {
+            return null;
+        }
+        // Quem tem pelo menos N anos nasceu até hoje menos N anos.
+        LocalDate nascidoAte = hoje.minusYears(anos);
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dataNascimento"), nascidoAte);
+    }
+
+    static Specification<Paciente> idadeMaxima(Integer anos, LocalDate hoje) {
+        if (anos == null) {
+            return null;
+        }
+        // Quem tem no máximo N anos ainda não completou N + 1.
+        LocalDate nascidoDepois = hoje.minusYears(anos + 1L);
+        return (root, query, cb) -> cb.greaterThan(root.get("dataNascimento"), nascidoDepois);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 public class JWTConverter implements Converter<Jwt, AbstractAuthenticationToken> {
@@ -15,7 +16,10 @@ public class JWTConverter implements Converter<Jwt, AbstractAuthenticationToken>
     public AbstractAuthenticationToken convert(Jwt jwt) {
 
         Map<String, Collection<String>> realmAccess = jwt.getClaim("realm_access");
-        Collection<String> roles = realmAccess.get("roles");
+        Collection<String> roles = realmAccess == null ? null : realmAccess.get("roles");
+        if (roles == null) {
+            return new JwtAuthenticationToken(jwt, List.of());
+        }
         var grants = roles
                 .stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role)).toList();
@@ -0,0 +1,93 @@
+package com.sobrevidas.crud_pacientes.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+
+/**
+ * Autenticação por Bearer token que guarda, por hash do token, o {@link Jwt} já verificado e as suas
+ * authorities. Os clientes reutilizam o mesmo token por minutos, então só a primeira requisição paga a verificação
+ * da assinatura RSA e a conversão dos papéis; as seguintes fazem um SHA-256 e uma leitura no cache.
+ *
+ * <p>Cada entrada vale até o {@code exp} do token (limitado a {@code ttlMaximo}); tokens sem {@code exp} não são
+ * guardados. A cada requisição é criado um {@link JwtAuthenticationToken} novo, porque o filtro grava nele os
+ * detalhes da requisição.
+ */
+public class JwtAuthenticationManagerComCache implements AuthenticationManager {
+
+    private final AuthenticationProvider provider;
+    private final Cache<String, TokenVerificado> tokens;
+
+    public JwtAuthenticationManagerComCache(AuthenticationProvider provider, long tamanhoMaximo, Duration ttlMaximo) {
+        this(provider, tamanhoMaximo, ttlMaximo, Ticker.systemTicker());
+    }
+
+    JwtAuthenticationManagerComCache(AuthenticationProvider provider, long tamanhoMaximo, Duration ttlMaximo, Ticker ticker) {
+        this.provider = provider;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(Expiry.<String, TokenVerificado>creating((chave, token) -> validade(token.jwt(), ttlMaximo)))
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        BearerTokenAuthenticationToken bearer = (BearerTokenAuthenticationToken) authentication;
+        String chave = hash(bearer.getToken());
+
+        TokenVerificado verificado = tokens.getIfPresent(chave);
+        if (verificado == null) {
+            JwtAuthenticationToken autenticado = (JwtAuthenticationToken) provider.authenticate(bearer);
+            verificado = new TokenVerificado(autenticado.getToken(), autenticado.getAuthorities());
+            if (autenticado.getToken().getExpiresAt() != null) {
+                tokens.put(chave, verificado);
+            }
+        }
+
+        JwtAuthenticationToken autenticado = new JwtAuthenticationToken(verificado.jwt(), verificado.autoridades());
+        autenticado.setDetails(bearer.getDetails());
+        return autenticado;
+    }
+
+    long tamanho() {
+        tokens.cleanUp();
+        return tokens.estimatedSize();
+    }
+
+    private static Duration validade(Jwt jwt, Duration ttlMaximo) {
+        Duration restante = Duration.between(Instant.now(), jwt.getExpiresAt());
+        if (restante.isNegative()) {
+            return Duration.ZERO;
+        }
+        return restante.compareTo(ttlMaximo) < 0 ? restante : ttlMaximo;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] resumo = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(resumo);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    private record TokenVerificado(Jwt jwt, Collection<GrantedAuthority> autoridades) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.sobrevidas.crud_pacientes.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.jwk.source.RateLimitReachedException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Verificação dos tokens do Keycloak. As chaves públicas (JWK set) ficam em cache com validade explícita e são
+ * renovadas em segundo plano antes de expirar; um token assinado com uma chave desconhecida (rotação no Keycloak)
+ * força uma nova busca, limitada a uma por {@code intervalo-minimo-busca}.
+ */
+@Configuration
+public class JwtConfig {
+
+    @Bean
+    public JwtDecoder jwtDecoder(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri:}") String issuer,
+                                 @Value("${pacientes.seguranca.jwk.ttl:15m}") Duration ttl,
+                                 @Value("${pacientes.seguranca.jwk.atualizacao-antecipada:1m}") Duration atualizacaoAntecipada,
+                                 @Value("${pacientes.seguranca.jwk.intervalo-minimo-busca:30s}") Duration intervaloMinimoBusca)
+            throws MalformedURLException {
+        return jwtDecoder(URI.create(jwkSetUri).toURL(), issuer, ttl, atualizacaoAntecipada, intervaloMinimoBusca);
+    }
+
+    @Bean
+    public AuthenticationManager jwtAuthenticationManager(JwtDecoder jwtDecoder,
+                                                          @Value("${pacientes.seguranca.cache-tokens.habilitado:true}") boolean cacheHabilitado,
+                                                          @Value("${pacientes.seguranca.cache-tokens.tamanho-maximo:10000}") long tamanhoMaximo,
+                                                          @Value("${pacientes.seguranca.cache-tokens.ttl-maximo:5m}") Duration ttlMaximo) {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(new JWTConverter());
+        if (!cacheHabilitado) {
+            return new ProviderManager(provider);
+        }
+        return new JwtAuthenticationManagerComCache(provider, tamanhoMaximo, ttlMaximo);
+    }
+
+    static NimbusJwtDecoder jwtDecoder(URL jwkSetUri, String issuer, Duration ttl, Duration atualizacaoAntecipada,
+                                       Duration intervaloMinimoBusca) {
+        JWKSource<SecurityContext> fonte = JWKSourceBuilder.<SecurityContext>create(jwkSetUri)
+                .cache(ttl.toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                .refreshAheadCache(atualizacaoAntecipada.toMillis(), true)
+                .rateLimited(intervaloMinimoBusca.toMillis())
+                .retrying(true)
+                .build();
+        JWKSource<SecurityContext> chaves = (seletor, contexto) -> {
+            try {
+                return fonte.get(seletor, contexto);
+            } catch (RateLimitReachedException e) {
+                // Chave desconhecida e o JWK set acabou de ser buscado: o token é inválido (401), não uma falha
+                // do servidor de autenticação.
+                return List.of();
+            }
+        };
+
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withJwkSetUri(jwkSetUri.toString())
+                .jwtProcessorCustomizer(processor ->
+                        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, chaves)))
+                .build();
+        decoder.setJwtValidator(issuer == null || issuer.isBlank()
+                ? JwtValidators.createDefault()
+                : JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+}
@@ -2,7 +2,9 @@ package com.sobrevidas.crud_pacientes.security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -11,18 +13,29 @@ import org.springframework.security.web.access.AccessDeniedHandlerImpl;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 
 @Configuration
+@Import(JwtConfig.class)
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager jwtAuthenticationManager)
+            throws Exception {
+
+        http
+                .authorizeHttpRequests(auth -> auth
+                        // Os endpoints da API são protegidos por @PreAuthorize; aqui só o Actuator precisa de regra.
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .anyRequest().permitAll()
+                );
 
         http
                 .csrf(csrf -> csrf.disable())
                 .oauth2ResourceServer(oauth2 -> oauth2
+                        // Verificação e conversão (JWTConverter) com cache por token: ver JwtConfig.
                         .jwt(jwt -> jwt
-                                .jwtAuthenticationConverter(new JWTConverter())
+                                .authenticationManager(jwtAuthenticationManager)
                         )
                 );
 
@@ -0,0 +1,195 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import com.sobrevidas.crud_pacientes.util.FiltroBloom;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória dos CPFs cadastrados, usado para responder "CPF não cadastrado" sem ir ao banco.
+ * É um {@link FiltroBloom} (cerca de 1,2 byte por CPF com 1% de falso positivo): uma resposta negativa é
+ * definitiva, uma positiva ainda precisa ser confirmada no banco. Enquanto a carga inicial não termina, ou com
+ * {@code pacientes.cpf-indice.habilitado=false}, toda consulta é tratada como "pode existir".
+ *
+ * <p>O filtro é local à réplica e só recebe os CPFs gravados por ela. Com várias réplicas
+ * ({@code pacientes.cache.compartilhado.habilitado=true}), um CPF cadastrado em outra réplica, ou pela importação
+ * inicial que outra réplica executou, seria negado aqui. Por isso o índice fica desligado nesse modo e as consultas
+ * vão ao banco.
+ *
+ * <p>Quem grava CPFs deve chamar {@link #registrar} dentro da transação: o CPF entra no filtro na hora e de novo
+ * após o commit, o que cobre gravações que terminam durante uma {@link #reconstruir() reconstrução}. Como o filtro
+ * não remove chaves, exclusões e CPFs alterados só deixam falsos positivos, que o banco desfaz.
+ */
+@Service
+@RequiredArgsConstructor
+public class CpfIndiceService {
+
+    private static final Logger log = LoggerFactory.getLogger(CpfIndiceService.class);
+
+    private final PacienteRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${pacientes.cpf-indice.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${pacientes.cache.compartilhado.habilitado:false}")
+    private boolean variasReplicas;
+
+    @Value("${pacientes.cpf-indice.capacidade-minima:1000000}")
+    private long capacidadeMinima;
+
+    @Value("${pacientes.cpf-indice.taxa-falso-positivo:0.01}")
+    private double taxaFalsoPositivo;
+
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+    private volatile FiltroBloom filtro;
+    private volatile FiltroBloom emConstrucao;
+
+    @Getter
+    private volatile boolean pronto;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void agendarCarga() {
+        if (!habilitado) {
+            log.info("Índice de CPFs desabilitado (pacientes.cpf-indice.habilitado=false).");
+            return;
+        }
+        if (variasReplicas) {
+            log.info("Índice de CPFs desabilitado: com o cache compartilhado há várias réplicas, e o filtro local não "
+                    + "veria os CPFs gravados pelas outras.");
+            return;
+        }
+        Thread.ofVirtual().name("cpf-indice").start(() -> {
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                log.error("Falha ao carregar o índice de CPFs; as consultas por CPF seguem indo ao banco.", e);
+            }
+        });
+    }
+
+    /**
+     * Recria o filtro a partir da tabela, dimensionado para o dobro dos pacientes atuais. O filtro anterior segue
+     * atendendo as consultas até a troca. Usado na carga inicial e depois de importações que não passam por
+     * {@link #registrar} (COPY).
+     */
+    public void reconstruir() {
+        if (!ativo()) {
+            return;
+        }
+        // ReentrantLock em vez de synchronized: a leitura dos CPFs bloqueia no JDBC, e no Java 21 uma thread
+        // virtual bloqueada dentro de um synchronized prende a thread de plataforma que a executa.
+        reconstrucao.lock();
+        try {
+            reconstruirFiltro();
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    private void reconstruirFiltro() {
+        long inicio = System.nanoTime();
+        FiltroBloom novo = new FiltroBloom(Math.max(capacidadeMinima, repository.count() * 2), taxaFalsoPositivo);
+        // Publicado antes da leitura: o que for commitado depois dela chega ao filtro novo pelo afterCommit.
+        emConstrucao = novo;
+        try {
+            long total = transactionTemplate.execute(status -> {
+                try (Stream<String> cpfs = repository.streamCpfs()) {
+                    return cpfs.filter(cpf -> adicionar(novo, cpf)).count();
+                }
+            });
+            filtro = novo;
+            pronto = true;
+            log.info("Índice de CPFs carregado: {} CPFs, {} KiB, em {} ms.",
+                    total, novo.tamanhoEmBytes() / 1024, (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            emConstrucao = null;
+        }
+    }
+
+    /**
+     * {@code false} somente quando o CPF com certeza não está cadastrado.
+     */
+    public boolean podeExistir(String cpf) {
+        FiltroBloom atual = filtro;
+        if (!pronto || atual == null) {
+            return true;
+        }
+        long chave = chave(cpf);
+        return chave < 0 || atual.podeConter(chave);
+    }
+
+    public void registrar(String cpf) {
+        registrar(List.of(cpf));
+    }
+
+    public void registrar(Collection<String> cpfs) {
+        if (!ativo() || cpfs.isEmpty()) {
+            return;
+        }
+        adicionarNosFiltros(cpfs);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<String> copia = List.copyOf(cpfs);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adicionarNosFiltros(copia);
+                }
+            });
+        }
+    }
+
+    private boolean ativo() {
+        return habilitado && !variasReplicas;
+    }
+
+    private void adicionarNosFiltros(Collection<String> cpfs) {
+        FiltroBloom atual = filtro;
+        FiltroBloom novo = emConstrucao;
+        for (String cpf : cpfs) {
+            adicionar(atual, cpf);
+            adicionar(novo, cpf);
+        }
+    }
+
+    private static boolean adicionar(FiltroBloom destino, String cpf) {
+        long chave = chave(cpf);
+        if (destino == null || chave < 0) {
+            return false;
+        }
+        destino.adicionar(chave);
+        return true;
+    }
+
+    /**
+     * CPFs têm 11 dígitos e cabem em um {@code long}; qualquer outro formato devolve -1 e fica fora do índice.
+     */
+    static long chave(String cpf) {
+        if (cpf == null || cpf.length() != 11) {
+            return -1;
+        }
+        long valor = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
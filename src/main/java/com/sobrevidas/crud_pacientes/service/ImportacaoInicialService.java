@@ -0,0 +1,84 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Popula o banco com o CSV de {@code pacientes.importacao.inicial.arquivo} quando ele está vazio.
+ * A importação começa só depois do {@link ApplicationReadyEvent} e roda em uma thread própria, então não atrasa
+ * a subida da aplicação nem as probes de prontidão; o andamento fica visível no health {@code importacaoInicial}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportacaoInicialService {
+
+    public enum Estado { DESABILITADA, AGUARDANDO, EM_ANDAMENTO, CONCLUIDA, NAO_NECESSARIA, FALHOU }
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoInicialService.class);
+
+    private final PacienteRepository repository;
+    private final PacienteImportService importService;
+    private final PacienteCopyImportService copyImportService;
+    private final CpfIndiceService cpfIndice;
+
+    @Value("${pacientes.importacao.inicial.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${pacientes.importacao.inicial.arquivo:/pacientes.csv}")
+    private String arquivo;
+
+    @Value("${pacientes.importacao.modo:jpa}")
+    private String modo;
+
+    @Getter
+    private volatile Estado estado = Estado.AGUARDANDO;
+
+    @Getter
+    private volatile String erro;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void agendarImportacaoInicial() {
+        if (!habilitada) {
+            estado = Estado.DESABILITADA;
+            log.info("Importação inicial desabilitada (pacientes.importacao.inicial.habilitada=false).");
+            return;
+        }
+        Thread.ofVirtual().name("importacao-inicial").start(this::importarSeNecessario);
+    }
+
+    void importarSeNecessario() {
+        try {
+            boolean retomar = importService.existeImportacaoInterrompida(PacienteImportService.chaveRecurso(arquivo));
+            if (!retomar && repository.count() > 0) {
+                estado = Estado.NAO_NECESSARIA;
+                log.info("O banco de dados já contém dados. Nenhuma importação é necessária.");
+                return;
+            }
+
+            estado = Estado.EM_ANDAMENTO;
+            log.info(retomar
+                    ? "Importação anterior interrompida. Retomando a partir do último checkpoint..."
+                    : "Banco de dados vazio. Iniciando importação do CSV...");
+            if ("copy".equalsIgnoreCase(modo)) {
+                copyImportService.importarCsv(importService.abrirRecurso(arquivo));
+                // O COPY grava direto na tabela, sem passar pelo índice de CPFs.
+                cpfIndice.reconstruir();
+            } else {
+                importService.importarCsvInterno(arquivo);
+            }
+            estado = Estado.CONCLUIDA;
+            log.info("Importação do CSV concluída com sucesso.");
+        } catch (Exception e) {
+            erro = e.getMessage();
+            estado = Estado.FALHOU;
+            log.error("Falha na importação do CSV", e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.dto.ImportacaoStatusDTO;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado em memória de uma importação de CSV executada em segundo plano.
+ * Os contadores são atualizados pela thread da importação e lidos pelas requisições de consulta.
+ */
+@Getter
+public class ImportacaoJob {
+
+    public enum Status { PENDENTE, EM_ANDAMENTO, CONCLUIDA, FALHOU }
+
+    private final UUID id;
+    private final String arquivo;
+    private final long tamanhoBytes;
+    private final Instant criadoEm = Instant.now();
+    private final AtomicLong bytesLidos = new AtomicLong();
+    private final AtomicLong linhasProcessadas = new AtomicLong();
+    private final AtomicLong linhasRejeitadas = new AtomicLong();
+
+    private volatile Status status = Status.PENDENTE;
+    private volatile Instant iniciadoEm;
+    private volatile Instant finalizadoEm;
+    private volatile String erro;
+    private volatile String chave;
+
+    public ImportacaoJob(UUID id, String arquivo, long tamanhoBytes) {
+        this.id = id;
+        this.arquivo = arquivo;
+        this.tamanhoBytes = tamanhoBytes;
+    }
+
+    void definirChave(String chave) {
+        this.chave = chave;
+    }
+
+    void registrarLote(int gravadas, int rejeitadas) {
+        linhasProcessadas.addAndGet(gravadas);
+        linhasRejeitadas.addAndGet(rejeitadas);
+    }
+
+    void iniciar() {
+        iniciadoEm = Instant.now();
+        status = Status.EM_ANDAMENTO;
+    }
+
+    void concluir() {
+        finalizadoEm = Instant.now();
+        status = Status.CONCLUIDA;
+    }
+
+    void falhar(String mensagem) {
+        erro = mensagem;
+        finalizadoEm = Instant.now();
+        status = Status.FALHOU;
+    }
+
+    public boolean isFinalizado() {
+        return status == Status.CONCLUIDA || status == Status.FALHOU;
+    }
+
+    public ImportacaoStatusDTO toStatusDTO() {
+        Instant inicio = iniciadoEm;
+        Instant fim = finalizadoEm != null ? finalizadoEm : Instant.now();
+        long linhas = linhasProcessadas.get();
+        double fracaoLida = tamanhoBytes > 0 ? Math.min(1.0, (double) bytesLidos.get() / tamanhoBytes) : 0.0;
+
+        double linhasPorSegundo = 0.0;
+        Long segundosRestantes = null;
+        if (inicio != null) {
+            double segundos = Math.max(Duration.between(inicio, fim).toMillis(), 1) / 1000.0;
+            linhasPorSegundo = linhas / segundos;
+            if (status == Status.EM_ANDAMENTO && fracaoLida > 0) {
+                segundosRestantes = Math.round(segundos * (1 - fracaoLida) / fracaoLida);
+            }
+        }
+        if (status == Status.CONCLUIDA) {
+            fracaoLida = 1.0;
+            segundosRestantes = 0L;
+        }
+
+        return new ImportacaoStatusDTO(id, status.name(), arquivo, linhas, linhasRejeitadas.get(),
+                Math.round(linhasPorSegundo * 10) / 10.0,
+                Math.round(fracaoLida * 1000) / 10.0,
+                segundosRestantes, erro, criadoEm, inicio, finalizadoEm);
+    }
+}
@@ -0,0 +1,152 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.dto.ImportacaoRejeicaoDTO;
+import com.sobrevidas.crud_pacientes.dto.ImportacaoStatusDTO;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.exception.ResourceNotFoundException;
+import com.sobrevidas.crud_pacientes.util.ContadorBytesInputStream;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Executa importações de CSV enviadas pela API em segundo plano.
+ * O arquivo é gravado em disco antes de a requisição retornar e processado por um pool pequeno e limitado
+ * ({@code pacientes.importacao.jobs-simultaneos}), para que as importações não disputem todas as conexões
+ * e threads com o tráfego normal da API.
+ */
+@Service
+public class ImportacaoJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoJobService.class);
+    private static final int MAXIMO_JOBS_FINALIZADOS = 100;
+
+    private final PacienteImportService importService;
+    private final Path diretorio;
+    private final ExecutorService executor;
+    private final Map<UUID, ImportacaoJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImportacaoJobService(PacienteImportService importService,
+                                @Value("${pacientes.importacao.diretorio:${java.io.tmpdir}/pacientes-importacoes}") Path diretorio,
+                                @Value("${pacientes.importacao.jobs-simultaneos:2}") int jobsSimultaneos,
+                                @Value("${pacientes.importacao.jobs-na-fila:10}") int jobsNaFila,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        // Com threads virtuais o pool continua limitado: o que segura as importações é jobs-simultaneos, não o
+        // custo das threads.
+        this(importService, diretorio, new ThreadPoolExecutor(jobsSimultaneos, jobsSimultaneos,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(jobsNaFila),
+                (threadsVirtuais ? Thread.ofVirtual() : Thread.ofPlatform()).name("importacao-job-", 0).factory()));
+    }
+
+    ImportacaoJobService(PacienteImportService importService, Path diretorio, ExecutorService executor) {
+        this.importService = importService;
+        this.diretorio = diretorio;
+        this.executor = executor;
+    }
+
+    public ImportacaoStatusDTO iniciar(MultipartFile arquivo) throws IOException {
+        if (arquivo == null || arquivo.isEmpty()) {
+            throw new InvalidRequestException("Envie um arquivo CSV não vazio.");
+        }
+
+        UUID id = UUID.randomUUID();
+        Files.createDirectories(diretorio);
+        Path destino = diretorio.resolve(id + ".csv");
+        arquivo.transferTo(destino);
+
+        ImportacaoJob job = new ImportacaoJob(id, arquivo.getOriginalFilename(), Files.size(destino));
+        descartarJobsAntigos();
+        jobs.put(id, job);
+
+        try {
+            executor.execute(() -> executar(job, destino));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            Files.deleteIfExists(destino);
+            throw new TaskRejectedException("Limite de importações simultâneas atingido. Tente novamente mais tarde.", e);
+        }
+
+        log.info("Importação {} agendada ({} bytes).", id, job.getTamanhoBytes());
+        return job.toStatusDTO();
+    }
+
+    public ImportacaoStatusDTO buscarStatus(UUID id) {
+        ImportacaoJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Importação não encontrada com id: " + id);
+        }
+        return job.toStatusDTO();
+    }
+
+    public List<ImportacaoRejeicaoDTO> listarRejeicoes(UUID id, int limite) {
+        ImportacaoJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Importação não encontrada com id: " + id);
+        }
+        return job.getChave() == null ? List.of() : importService.listarRejeicoes(job.getChave(), limite);
+    }
+
+    private void executar(ImportacaoJob job, Path arquivo) {
+        job.iniciar();
+        try {
+            // O checkpoint é indexado pelo conteúdo: reenviar o mesmo arquivo após uma falha retoma de onde parou.
+            job.definirChave(calcularChave(arquivo));
+            try (InputStream in = new ContadorBytesInputStream(Files.newInputStream(arquivo), job.getBytesLidos())) {
+                importService.importarCsv(in, job.getChave(), job::registrarLote);
+            }
+            job.concluir();
+            log.info("Importação {} concluída: {} linhas.", job.getId(), job.getLinhasProcessadas().get());
+        } catch (Exception e) {
+            job.falhar(e.getMessage());
+            log.error("Importação {} falhou", job.getId(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException e) {
+                log.warn("Não foi possível remover o arquivo temporário {}", arquivo, e);
+            }
+        }
+    }
+
+    private static String calcularChave(Path arquivo) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(arquivo), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return "sha256:" + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void descartarJobsAntigos() {
+        jobs.values().stream()
+                .filter(ImportacaoJob::isFinalizado)
+                .sorted(Comparator.comparing(ImportacaoJob::getCriadoEm).reversed())
+                .skip(MAXIMO_JOBS_FINALIZADOS)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas das importações de CSV, com a tag {@code modo} ({@code jpa} ou {@code copy}):
+ * <ul>
+ *     <li>{@code pacientes.importacao.linhas}: linhas processadas, com a tag {@code resultado}
+ *     ({@code inserida}, {@code atualizada} ou {@code rejeitada}). A vazão é a taxa deste contador, ex.:
+ *     {@code rate(pacientes_importacao_linhas_total[1m])}. Na importação JPA o contador avança a cada lote
+ *     gravado, então acompanha uma importação em andamento.</li>
+ *     <li>{@code pacientes.importacao}: duração de cada importação, com a tag {@code exception} nas falhas.</li>
+ * </ul>
+ */
+@Component
+public class MetricasImportacao {
+
+    public static final String MODO_JPA = "jpa";
+    public static final String MODO_COPY = "copy";
+
+    private final MeterRegistry registry;
+
+    public MetricasImportacao(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void linhas(String modo, long inseridas, long atualizadas, long rejeitadas) {
+        contador(modo, "inserida").increment(inseridas);
+        contador(modo, "atualizada").increment(atualizadas);
+        contador(modo, "rejeitada").increment(rejeitadas);
+    }
+
+    public Timer.Sample iniciar() {
+        return Timer.start(registry);
+    }
+
+    public void concluir(Timer.Sample inicio, String modo, Throwable erro) {
+        inicio.stop(Timer.builder("pacientes.importacao")
+                .description("Duração das importações de CSV")
+                .tag("modo", modo)
+                .tag("exception", erro == null ? "none" : erro.getClass().getSimpleName())
+                .register(registry));
+    }
+
+    private Counter contador(String modo, String resultado) {
+        return Counter.builder("pacientes.importacao.linhas")
+                .description("Linhas de CSV processadas nas importações")
+                .tag("modo", modo)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
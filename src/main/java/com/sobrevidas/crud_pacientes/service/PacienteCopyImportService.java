@@ -0,0 +1,206 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import com.sobrevidas.crud_pacientes.dto.ResultadoImportacaoDTO;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carga em massa de pacientes via {@code COPY FROM STDIN} do PostgreSQL.
+ * O CSV é copiado para uma tabela temporária e depois mesclado em {@code pacientes} com
+ * {@code INSERT ... ON CONFLICT (cpf)}, tudo em uma única transação, que também grava um evento CRIADO ou
+ * ATUALIZADO por paciente no outbox ({@code pacientes_eventos}) do feed de alterações.
+ */
+@Service
+@RequiredArgsConstructor
+public class PacienteCopyImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PacienteCopyImportService.class);
+
+    static final List<String> COLUNAS_CSV = List.of(
+            "cpf", "nome", "nome_mae", "data_nascimento", "cep", "endereco", "num_endereco", "complemento",
+            "bairro", "cidade", "estado", "telefone_celular", "telefone_responsavel", "email", "sexo",
+            "num_cartao_sus", "eh_tabagista", "eh_etilista", "tem_lesao_suspeita", "participa_smart_monitor");
+
+    private static final String CRIAR_STAGING = """
+            CREATE TEMP TABLE pacientes_staging (
+                linha bigserial,
+                cpf text, nome text, nome_mae text, data_nascimento text, cep text, endereco text,
+                num_endereco text, complemento text, bairro text, cidade text, estado text,
+                telefone_celular text, telefone_responsavel text, email text, sexo text, num_cartao_sus text,
+                eh_tabagista text, eh_etilista text, tem_lesao_suspeita text, participa_smart_monitor text
+            ) ON COMMIT DROP
+            """;
+
+    private static final String CRIAR_MESCLADOS = "CREATE TEMP TABLE pacientes_mesclados (id bigint) ON COMMIT DROP";
+
+    // pg_input_is_valid exige PostgreSQL 16+ (a versão usada no docker-compose).
+    private static final String CONDICAO_VALIDA = """
+            cpf ~ '^[0-9]{11}$'
+            AND coalesce(trim(nome), '') <> ''
+            AND pg_input_is_valid(left(data_nascimento, 10), 'date')
+            """;
+
+    private static final String MESCLAR = """
+            WITH validas AS (
+                SELECT DISTINCT ON (cpf) *
+                FROM pacientes_staging
+                WHERE %s
+                ORDER BY cpf, linha DESC
+            ), upsert AS (
+                INSERT INTO pacientes (id, cpf, nome, nome_mae, data_nascimento, cep, endereco, num_endereco,
+                        complemento, bairro, cidade, estado, telefone_celular, telefone_responsavel, email, sexo,
+                        num_cartao_sus, eh_tabagista, eh_etilista, tem_lesao_suspeita, participa_smart_monitor)
+                SELECT nextval('pacientes_seq'), cpf, nome, nome_mae, left(data_nascimento, 10)::date, cep, endereco,
+                        num_endereco, complemento, bairro, cidade, estado, telefone_celular, telefone_responsavel,
+                        email, sexo, num_cartao_sus,
+                        %s, %s, %s, %s
+                FROM validas
+                ON CONFLICT (cpf) DO UPDATE SET
+                    nome = EXCLUDED.nome, nome_mae = EXCLUDED.nome_mae, data_nascimento = EXCLUDED.data_nascimento,
+                    cep = EXCLUDED.cep, endereco = EXCLUDED.endereco, num_endereco = EXCLUDED.num_endereco,
+                    complemento = EXCLUDED.complemento, bairro = EXCLUDED.bairro, cidade = EXCLUDED.cidade,
+                    estado = EXCLUDED.estado, telefone_celular = EXCLUDED.telefone_celular,
+                    telefone_responsavel = EXCLUDED.telefone_responsavel, email = EXCLUDED.email,
+                    sexo = EXCLUDED.sexo, num_cartao_sus = EXCLUDED.num_cartao_sus,
+                    eh_tabagista = EXCLUDED.eh_tabagista, eh_etilista = EXCLUDED.eh_etilista,
+                    tem_lesao_suspeita = EXCLUDED.tem_lesao_suspeita,
+                    participa_smart_monitor = EXCLUDED.participa_smart_monitor,
+                    versao = pacientes.versao + 1
+                RETURNING id, versao, (xmax = 0) AS inserido
+            ), mesclados AS (
+                INSERT INTO pacientes_mesclados SELECT id FROM upsert
+            ), eventos AS (
+                INSERT INTO pacientes_eventos (id, paciente_id, tipo, versao, ocorrido_em)
+                SELECT nextval('pacientes_eventos_seq'), id,
+                        CASE WHEN inserido THEN 'CRIADO' ELSE 'ATUALIZADO' END, versao, clock_timestamp()
+                FROM upsert
+            )
+            SELECT count(*) FILTER (WHERE inserido), count(*) FILTER (WHERE NOT inserido) FROM upsert
+            """.formatted(CONDICAO_VALIDA,
+            booleano("eh_tabagista"), booleano("eh_etilista"),
+            booleano("tem_lesao_suspeita"), booleano("participa_smart_monitor"));
+
+    // now() e o default CURRENT_TIMESTAMP são o início da transação, que inclui o COPY e pode passar da margem de
+    // GET /pacientes/sync: as linhas confirmariam com um atualizado_em anterior a marcas já entregues e nunca seriam
+    // sincronizadas. Por isso o instante é gravado por último, logo antes do commit.
+    private static final String CARIMBAR_ATUALIZACAO = """
+            UPDATE pacientes p SET atualizado_em = statement_timestamp()
+            FROM pacientes_mesclados m
+            WHERE p.id = m.id
+            """;
+
+    private final DataSource dataSource;
+    private final MetricasImportacao metricas;
+
+    // O merge atualiza pacientes existentes direto no banco, sem passar pelo cache de PacienteService.
+    @CacheEvict(cacheNames = CacheConfig.PACIENTES, allEntries = true)
+    public ResultadoImportacaoDTO importarCsv(InputStream inputStream) throws IOException {
+        Timer.Sample inicio = metricas.iniciar();
+        Throwable erro = null;
+        try {
+            ResultadoImportacaoDTO resultado = importar(inputStream);
+            metricas.linhas(MetricasImportacao.MODO_COPY, resultado.inseridos(), resultado.atualizados(),
+                    resultado.rejeitados());
+            return resultado;
+        } catch (IOException | RuntimeException e) {
+            erro = e;
+            throw e;
+        } finally {
+            metricas.concluir(inicio, MetricasImportacao.MODO_COPY, erro);
+        }
+    }
+
+    private ResultadoImportacaoDTO importar(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<String> colunas = lerCabecalho(reader);
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CRIAR_STAGING);
+                statement.execute(CRIAR_MESCLADOS);
+
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                long copiadas = copyManager.copyIn(
+                        "COPY pacientes_staging (" + String.join(", ", colunas) + ") FROM STDIN WITH (FORMAT csv)",
+                        reader);
+
+                long inseridos;
+                long atualizados;
+                try (ResultSet rs = statement.executeQuery(MESCLAR)) {
+                    rs.next();
+                    inseridos = rs.getLong(1);
+                    atualizados = rs.getLong(2);
+                }
+                statement.executeUpdate(CARIMBAR_ATUALIZACAO);
+                connection.commit();
+
+                ResultadoImportacaoDTO resultado =
+                        new ResultadoImportacaoDTO(inseridos, atualizados, copiadas - inseridos - atualizados);
+                log.info("Carga via COPY concluída: {} linhas lidas, {}", copiadas, resultado);
+                return resultado;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Falha na carga via COPY: " + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    List<String> lerCabecalho(BufferedReader reader) throws IOException {
+        String linha = reader.readLine();
+        if (linha == null) {
+            throw new IOException("Arquivo CSV vazio.");
+        }
+        if (linha.startsWith("\uFEFF")) {
+            linha = linha.substring(1);
+        }
+
+        List<String> colunas = new ArrayList<>();
+        for (CSVRecord record : CSVFormat.DEFAULT.parse(new StringReader(linha))) {
+            for (String coluna : record) {
+                String nome = coluna.trim().toLowerCase();
+                // As colunas vão direto para o comando COPY, então só nomes conhecidos são aceitos.
+                if (!COLUNAS_CSV.contains(nome)) {
+                    throw new IOException("Coluna desconhecida no cabeçalho do CSV: " + coluna);
+                }
+                colunas.add(nome);
+            }
+        }
+        if (!colunas.contains("cpf") || !colunas.contains("nome") || !colunas.contains("data_nascimento")) {
+            throw new IOException("O cabeçalho do CSV deve conter as colunas cpf, nome e data_nascimento.");
+        }
+        return colunas;
+    }
+
+    private static String booleano(String coluna) {
+        // Mesma regra de PacienteImportService.parseBoolean: vazio ou "null" viram NULL, "true" vira true.
+        return "CASE WHEN coalesce(trim(%1$s), '') = '' OR lower(%1$s) = 'null' THEN NULL ELSE lower(%1$s) = 'true' END"
+                .formatted(coluna);
+    }
+}
@@ -0,0 +1,95 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.dto.AlteracoesPacienteDTO;
+import com.sobrevidas.crud_pacientes.dto.EventoPacienteDTO;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.entity.PacienteEvento;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.repository.PacienteEventoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Feed de alterações de pacientes (outbox). Os eventos são gravados dentro da transação que altera o paciente,
+ * então só existem se a alteração for confirmada, e ficam visíveis em {@code GET /pacientes/changes} depois que o
+ * {@code RelayEventosPaciente} os publica.
+ */
+@Service
+@RequiredArgsConstructor
+public class PacienteEventoService {
+
+    public static final int TAMANHO_PAGINA_PADRAO = 500;
+    public static final int TAMANHO_PAGINA_MAXIMO = 5000;
+    // Limita os parâmetros de cada INSERT ... SELECT (o PostgreSQL aceita até 32767 por instrução).
+    private static final int PACIENTES_POR_INSTRUCAO = 1000;
+
+    private final PacienteEventoRepository repository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoPaciente tipo, Paciente paciente) {
+        registrar(tipo, List.of(paciente));
+    }
+
+    /**
+     * Os pacientes precisam já ter sido gravados; a versão do evento é lida da linha, dentro da mesma transação.
+     * Os eventos são inseridos por {@code INSERT ... SELECT}, sem uma ida ao banco por id da sequência.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoPaciente tipo, Collection<Paciente> pacientes) {
+        Instant agora = Instant.now();
+        List<Long> ids = pacientes.stream().map(Paciente::getId).toList();
+        for (int inicio = 0; inicio < ids.size(); inicio += PACIENTES_POR_INSTRUCAO) {
+            repository.registrarPorPaciente(tipo.name(),
+                    ids.subList(inicio, Math.min(inicio + PACIENTES_POR_INSTRUCAO, ids.size())), agora);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarRemocao(Long pacienteId) {
+        repository.save(evento(TipoEventoPaciente.REMOVIDO, pacienteId, null, Instant.now()));
+    }
+
+    @Transactional(readOnly = true)
+    public AlteracoesPacienteDTO listarAlteracoes(Long since, Integer tamanho) {
+        long desde = since == null ? 0L : since;
+        if (desde < 0) {
+            throw new InvalidRequestException("O parâmetro 'since' não pode ser negativo.");
+        }
+        int tamanhoPagina = normalizarTamanhoPagina(tamanho);
+
+        // Um item a mais para saber se a página não esgotou as alterações.
+        List<EventoPacienteDTO> eventos = repository.findByPosicaoGreaterThanOrderByPosicaoAsc(
+                desde, Limit.of(tamanhoPagina + 1), EventoPacienteDTO.class);
+        boolean temMais = eventos.size() > tamanhoPagina;
+        List<EventoPacienteDTO> alteracoes = temMais ? eventos.subList(0, tamanhoPagina) : eventos;
+        long proximoSince = alteracoes.isEmpty() ? desde : alteracoes.getLast().posicao();
+        return new AlteracoesPacienteDTO(alteracoes, proximoSince, temMais);
+    }
+
+    private static PacienteEvento evento(TipoEventoPaciente tipo, Long pacienteId, Long versao, Instant ocorridoEm) {
+        return PacienteEvento.builder()
+                .pacienteId(pacienteId)
+                .tipo(tipo)
+                .versao(versao)
+                .ocorridoEm(ocorridoEm)
+                .build();
+    }
+
+    private static int normalizarTamanhoPagina(Integer tamanho) {
+        if (tamanho == null) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        if (tamanho < 1) {
+            throw new InvalidRequestException("O tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
+}
@@ -0,0 +1,94 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapper;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class PacienteExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PacienteExportService.class);
+    private static final int LINHAS_POR_FLUSH = Integer.parseInt(PacienteRepository.TAMANHO_FETCH_EXPORTACAO);
+
+    private final PacienteRepository repository;
+    private final PacienteMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final MappingJackson2CborHttpMessageConverter cbor;
+    private final MappingJackson2SmileHttpMessageConverter smile;
+
+    /**
+     * Escreve todos os pacientes em NDJSON (um objeto JSON por linha), lendo o banco por cursor.
+     * Cada entidade é desanexada logo após o mapeamento, então o uso de memória não cresce com o total de linhas.
+     */
+    @Transactional(readOnly = true)
+    public long exportarNdjson(OutputStream out) throws IOException {
+        return exportar(out, objectMapper, true, "NDJSON");
+    }
+
+    /**
+     * Mesma exportação como sequência de itens CBOR (RFC 8742): um item por paciente, sem separador.
+     */
+    @Transactional(readOnly = true)
+    public long exportarCbor(OutputStream out) throws IOException {
+        return exportar(out, cbor.getObjectMapper(), false, "CBOR");
+    }
+
+    /**
+     * Mesma exportação em Smile: um valor raiz por paciente, no mesmo stream.
+     */
+    @Transactional(readOnly = true)
+    public long exportarSmile(OutputStream out) throws IOException {
+        return exportar(out, smile.getObjectMapper(), false, "Smile");
+    }
+
+    private long exportar(OutputStream out, ObjectMapper formato, boolean quebraDeLinha, String nome) throws IOException {
+        ObjectWriter writer = formato.writerFor(PacienteResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long total = 0;
+
+        try (Stream<Paciente> pacientes = repository.streamTodosOrdenadosPorId();
+             JsonGenerator generator = formato.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sem isso o gerador JSON põe um espaço antes de cada valor raiz após o primeiro; no NDJSON o separador é o '\n'.
+            generator.setRootValueSeparator(null);
+
+            Iterator<Paciente> iterator = pacientes.iterator();
+            while (iterator.hasNext()) {
+                Paciente paciente = iterator.next();
+                writer.writeValue(generator, mapper.toResponseDTO(paciente));
+                if (quebraDeLinha) {
+                    generator.writeRaw('\n');
+                }
+                entityManager.detach(paciente);
+
+                if (++total % LINHAS_POR_FLUSH == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+
+        log.info("Exportação {} concluída: {} pacientes.", nome, total);
+        return total;
+    }
+}
@@ -1,85 +1,361 @@
 package com.sobrevidas.crud_pacientes.service;
 
+import com.sobrevidas.crud_pacientes.dto.ImportacaoRejeicaoDTO;
+import com.sobrevidas.crud_pacientes.dto.ResultadoImportacaoDTO;
+import com.sobrevidas.crud_pacientes.entity.ImportacaoCheckpoint;
+import com.sobrevidas.crud_pacientes.entity.ImportacaoRejeicao;
 import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import com.sobrevidas.crud_pacientes.repository.ImportacaoCheckpointRepository;
+import com.sobrevidas.crud_pacientes.repository.ImportacaoRejeicaoRepository;
 import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
 
 @Service
 @RequiredArgsConstructor
-public class PacienteImportService implements CommandLineRunner {
+public class PacienteImportService {
 
     private static final Logger log = LoggerFactory.getLogger(PacienteImportService.class);
+    private static final Future<BlocoConvertido> FIM_DA_LEITURA =
+            CompletableFuture.completedFuture(new BlocoConvertido(List.of(), List.of(), 0));
+    private static final List<String> COLUNAS_OBRIGATORIAS = List.of("cpf", "nome", "data_nascimento");
+    private static final int TAMANHO_MAXIMO_MOTIVO = 500;
+    private static final int TAMANHO_MAXIMO_CONTEUDO = 4000;
+
     private final PacienteRepository repository;
+    private final ImportacaoCheckpointRepository checkpointRepository;
+    private final ImportacaoRejeicaoRepository rejeicaoRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CpfIndiceService cpfIndice;
+    private final MetricasImportacao metricas;
+    private final PacienteEventoService eventos;
+
+    @Value("${pacientes.importacao.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    @Value("${pacientes.importacao.lotes-em-andamento:4}")
+    private int lotesEmAndamento;
+
+    public ResultadoImportacaoDTO importarCsvInterno(String caminhoArquivo) throws IOException {
+        return importarCsv(abrirRecurso(caminhoArquivo), chaveRecurso(caminhoArquivo), ProgressoImportacao.NENHUM);
+    }
+
+    public static String chaveRecurso(String caminhoArquivo) {
+        return "classpath:" + caminhoArquivo;
+    }
+
+    public ResultadoImportacaoDTO importarCsv(InputStream inputStream) throws IOException {
+        return importarCsv(inputStream, "avulsa:" + UUID.randomUUID(), ProgressoImportacao.NENHUM);
+    }
+
+    /**
+     * Importa o CSV em um pipeline de três estágios: uma thread lê o arquivo e o divide em blocos de
+     * {@code pacientes.importacao.tamanho-lote} linhas, threads virtuais convertem cada bloco em {@link Paciente}
+     * e a thread chamadora grava os blocos, na ordem do arquivo, cada um na sua própria transação.
+     * A fila entre leitura e gravação é limitada a {@code pacientes.importacao.lotes-em-andamento} blocos, então a
+     * leitura espera quando o banco fica para trás e a memória usada não depende do tamanho do arquivo.
+     * <p>
+     * Linhas inválidas não interrompem a importação: vão para {@code importacao_rejeicoes} com o número da linha e
+     * o motivo. Cada lote grava, na mesma transação, um checkpoint em {@code importacao_checkpoints} sob
+     * {@code chave}; se a importação for interrompida, chamar de novo com a mesma chave retoma após o último lote
+     * gravado. Cada paciente gravado gera também um evento CRIADO no feed de alterações, na transação do seu lote.
+     */
+    public ResultadoImportacaoDTO importarCsv(InputStream inputStream, String chave, ProgressoImportacao progresso)
+            throws IOException {
+        Timer.Sample inicio = metricas.iniciar();
+        Throwable erro = null;
+        try {
+            return importar(inputStream, chave, progresso);
+        } catch (IOException | RuntimeException e) {
+            erro = e;
+            throw e;
+        } finally {
+            metricas.concluir(inicio, MetricasImportacao.MODO_JPA, erro);
+        }
+    }
+
+    private ResultadoImportacaoDTO importar(InputStream inputStream, String chave, ProgressoImportacao progresso)
+            throws IOException {
+        Optional<ImportacaoCheckpoint> checkpoint = checkpointRepository.findById(chave);
+        if (checkpoint.map(ImportacaoCheckpoint::isConcluida).orElse(false)) {
+            inputStream.close();
+            log.info("A importação {} já foi concluída anteriormente. Nada a fazer.", chave);
+            return new ResultadoImportacaoDTO(0, 0, 0);
+        }
+        long retomarAposRegistro = checkpoint.map(ImportacaoCheckpoint::getUltimoRegistro).orElse(0L);
+        if (retomarAposRegistro > 0) {
+            log.info("Retomando a importação {} após o registro {}.", chave, retomarAposRegistro);
+        }
+
+        BlockingQueue<Future<BlocoConvertido>> fila = new ArrayBlockingQueue<>(lotesEmAndamento);
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+             ExecutorService conversores = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Thread leitor = Thread.ofVirtual()
+                    .name("importacao-leitor")
+                    .start(() -> lerBlocos(reader, retomarAposRegistro, conversores, fila));
 
-    @Override
-    public void run(String... args) throws Exception {
-        if (repository.count() == 0) {
-            log.info("Banco de dados vazio. Iniciando importação do CSV...");
+            long gravadas = 0;
+            long rejeitadas = 0;
             try {
-                importarCsvInterno("/pacientes.csv");
-                log.info("Importação do CSV concluída com sucesso.");
-            } catch (IOException e) {
-                log.error("Falha na importação do CSV", e);
+                Future<BlocoConvertido> bloco;
+                while ((bloco = fila.take()) != FIM_DA_LEITURA) {
+                    ResultadoLote resultado = persistirLote(chave, aguardarConversao(bloco));
+                    gravadas += resultado.gravadas();
+                    rejeitadas += resultado.rejeitadas();
+                    metricas.linhas(MetricasImportacao.MODO_JPA, resultado.gravadas(), 0, resultado.rejeitadas());
+                    progresso.loteGravado(resultado.gravadas(), resultado.rejeitadas());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Importação interrompida.", e);
+            } finally {
+                leitor.interrupt();
+                fila.forEach(pendente -> pendente.cancel(true));
+            }
+
+            marcarConcluida(chave);
+            log.info("Importação {}: {} pacientes gravados e {} linhas rejeitadas, em lotes de {}.",
+                    chave, gravadas, rejeitadas, tamanhoLote);
+            return new ResultadoImportacaoDTO(gravadas, 0, rejeitadas);
+        }
+    }
+
+    public boolean existeImportacaoInterrompida(String chave) {
+        return checkpointRepository.findById(chave)
+                .map(checkpoint -> !checkpoint.isConcluida())
+                .orElse(false);
+    }
+
+    public List<ImportacaoRejeicaoDTO> listarRejeicoes(String chave, int limite) {
+        return rejeicaoRepository.findByChaveOrderByLinhaAsc(chave, Limit.of(limite))
+                .stream()
+                .map(rejeicao -> new ImportacaoRejeicaoDTO(rejeicao.getLinha(), rejeicao.getMotivo(), rejeicao.getConteudo()))
+                .toList();
+    }
+
+    private void lerBlocos(Reader reader, long retomarAposRegistro, ExecutorService conversores,
+                           BlockingQueue<Future<BlocoConvertido>> fila) {
+        try {
+            try {
+                CSVParser records = CSVFormat.DEFAULT
+                        .withFirstRecordAsHeader()
+                        .parse(reader);
+                validarCabecalho(records.getHeaderNames());
+
+                List<CSVRecord> bloco = new ArrayList<>(tamanhoLote);
+                for (CSVRecord record : records) {
+                    if (record.getRecordNumber() <= retomarAposRegistro) {
+                        continue;
+                    }
+                    bloco.add(record);
+                    if (bloco.size() >= tamanhoLote) {
+                        fila.put(converterBloco(conversores, bloco));
+                        bloco = new ArrayList<>(tamanhoLote);
+                    }
+                }
+                if (!bloco.isEmpty()) {
+                    fila.put(converterBloco(conversores, bloco));
+                }
+                fila.put(FIM_DA_LEITURA);
+            } catch (IOException | RuntimeException e) {
+                // A falha de leitura é entregue a quem grava, que a relança na thread chamadora.
+                fila.put(CompletableFuture.failedFuture(e));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void validarCabecalho(List<String> colunas) throws IOException {
+        for (String obrigatoria : COLUNAS_OBRIGATORIAS) {
+            if (!colunas.contains(obrigatoria)) {
+                throw new IOException("O cabeçalho do CSV não contém a coluna obrigatória: " + obrigatoria);
+            }
+        }
+    }
+
+    private Future<BlocoConvertido> converterBloco(ExecutorService conversores, List<CSVRecord> registros) {
+        return conversores.submit(() -> {
+            List<LinhaConvertida> convertidas = new ArrayList<>(registros.size());
+            List<LinhaRejeitada> rejeitadas = new ArrayList<>();
+            for (CSVRecord record : registros) {
+                try {
+                    convertidas.add(new LinhaConvertida(record, converterRegistro(record)));
+                } catch (RuntimeException e) {
+                    rejeitadas.add(new LinhaRejeitada(record, descreverErro(e)));
+                }
+            }
+            return new BlocoConvertido(convertidas, rejeitadas, registros.get(registros.size() - 1).getRecordNumber());
+        });
+    }
+
+    private BlocoConvertido aguardarConversao(Future<BlocoConvertido> bloco) throws IOException, InterruptedException {
+        try {
+            return bloco.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) {
+                throw io;
+            }
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
             }
-        } else {
-            log.info("O banco de dados já contém dados. Nenhuma importação é necessária.");
+            throw new IOException("Falha ao converter bloco do CSV.", causa);
         }
     }
 
-    public void importarCsvInterno(String caminhoArquivo) throws IOException {
+    InputStream abrirRecurso(String caminhoArquivo) throws IOException {
         InputStream inputStream = getClass().getResourceAsStream(caminhoArquivo);
         if (inputStream == null) {
             throw new IOException("Arquivo não encontrado no classpath: " + caminhoArquivo);
         }
+        return inputStream;
+    }
+
+    private ResultadoLote persistirLote(String chave, BlocoConvertido bloco) {
+        List<Paciente> pacientes = bloco.linhas().stream().map(LinhaConvertida::paciente).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                cpfIndice.registrar(pacientes.stream().map(Paciente::getCpf).toList());
+                repository.saveAll(pacientes);
+                eventos.registrar(TipoEventoPaciente.CRIADO, pacientes);
+                registrarRejeicoesECheckpoint(chave, bloco.rejeitadas(), bloco.ultimoRegistro(), pacientes.size());
+                repository.flush();
+                entityManager.clear();
+            });
+            return new ResultadoLote(pacientes.size(), bloco.rejeitadas().size());
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Lote até o registro {} violou uma restrição do banco; gravando linha a linha.", bloco.ultimoRegistro());
+            return persistirLinhaALinha(chave, bloco);
+        }
+    }
 
-        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-            Iterable<CSVRecord> records = CSVFormat.DEFAULT
-                    .withFirstRecordAsHeader()
-                    .parse(reader);
-
-            List<Paciente> pacientes = new ArrayList<>();
-            for (CSVRecord record : records) {
-                Paciente paciente = Paciente.builder()
-                        .cpf(record.get("cpf"))
-                        .nome(record.get("nome"))
-                        .nomeMae(record.get("nome_mae"))
-                        .dataNascimento(LocalDate.parse(record.get("data_nascimento").substring(0, 10)))
-                        .cep(record.get("cep"))
-                        .endereco(record.get("endereco"))
-                        .numEndereco(record.get("num_endereco"))
-                        .complemento(record.get("complemento"))
-                        .bairro(record.get("bairro"))
-                        .cidade(record.get("cidade"))
-                        .estado(record.get("estado"))
-                        .telefoneCelular(record.get("telefone_celular"))
-                        .telefoneResponsavel(record.get("telefone_responsavel"))
-                        .email(record.get("email"))
-                        .sexo(record.get("sexo"))
-                        .numCartaoSus(record.get("num_cartao_sus"))
-                        .ehTabagista(parseBoolean(record.get("eh_tabagista")))
-                        .ehEtilista(parseBoolean(record.get("eh_etilista")))
-                        .temLesaoSuspeita(parseBoolean(record.get("tem_lesao_suspeita")))
-                        .participaSmartMonitor(parseBoolean(record.get("participa_smart_monitor")))
-                        .build();
-                pacientes.add(paciente);
+    /**
+     * Caminho lento, usado só quando o lote inteiro falha por uma restrição do banco (ex.: CPF repetido):
+     * cada linha é gravada na sua própria transação e as que falham vão para a quarentena.
+     */
+    private ResultadoLote persistirLinhaALinha(String chave, BlocoConvertido bloco) {
+        List<LinhaRejeitada> rejeitadas = new ArrayList<>(bloco.rejeitadas());
+        int gravadas = 0;
+        for (LinhaConvertida linha : bloco.linhas()) {
+            linha.paciente().setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    cpfIndice.registrar(linha.paciente().getCpf());
+                    repository.save(linha.paciente());
+                    eventos.registrar(TipoEventoPaciente.CRIADO, linha.paciente());
+                    repository.flush();
+                    entityManager.clear();
+                });
+                gravadas++;
+            } catch (DataIntegrityViolationException e) {
+                rejeitadas.add(new LinhaRejeitada(linha.record(),
+                        "Violação de restrição no banco (ex.: CPF já cadastrado): " + e.getMostSpecificCause().getMessage()));
             }
-            repository.saveAll(pacientes);
         }
+
+        int totalGravadas = gravadas;
+        transactionTemplate.executeWithoutResult(status -> {
+            registrarRejeicoesECheckpoint(chave, rejeitadas, bloco.ultimoRegistro(), totalGravadas);
+            repository.flush();
+            entityManager.clear();
+        });
+        return new ResultadoLote(totalGravadas, rejeitadas.size());
+    }
+
+    private void registrarRejeicoesECheckpoint(String chave, List<LinhaRejeitada> rejeitadas,
+                                               long ultimoRegistro, int gravadas) {
+        if (!rejeitadas.isEmpty()) {
+            Instant agora = Instant.now();
+            rejeicaoRepository.saveAll(rejeitadas.stream()
+                    .map(rejeitada -> ImportacaoRejeicao.builder()
+                            .chave(chave)
+                            .linha(numeroDaLinha(rejeitada.record()))
+                            .motivo(truncar(rejeitada.motivo(), TAMANHO_MAXIMO_MOTIVO))
+                            .conteudo(truncar(CSVFormat.DEFAULT.format((Object[]) rejeitada.record().values()), TAMANHO_MAXIMO_CONTEUDO))
+                            .criadoEm(agora)
+                            .build())
+                    .toList());
+        }
+
+        ImportacaoCheckpoint checkpoint = buscarOuCriarCheckpoint(chave);
+        checkpoint.setUltimoRegistro(ultimoRegistro);
+        checkpoint.setLinhasGravadas(checkpoint.getLinhasGravadas() + gravadas);
+        checkpoint.setLinhasRejeitadas(checkpoint.getLinhasRejeitadas() + rejeitadas.size());
+        checkpoint.setAtualizadoEm(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private void marcarConcluida(String chave) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ImportacaoCheckpoint checkpoint = buscarOuCriarCheckpoint(chave);
+            checkpoint.setConcluida(true);
+            checkpoint.setAtualizadoEm(Instant.now());
+            checkpointRepository.save(checkpoint);
+        });
+    }
+
+    private ImportacaoCheckpoint buscarOuCriarCheckpoint(String chave) {
+        return checkpointRepository.findById(chave)
+                .orElseGet(() -> ImportacaoCheckpoint.builder().chave(chave).build());
+    }
+
+    static Paciente converterRegistro(CSVRecord record) {
+        String cpf = valor(record, "cpf");
+        if (cpf == null || !cpf.matches("[0-9]{11}")) {
+            throw new IllegalArgumentException("CPF deve ter 11 dígitos numéricos: '" + cpf + "'");
+        }
+
+        return Paciente.builder()
+                .cpf(cpf)
+                .nome(valor(record, "nome"))
+                .nomeMae(valor(record, "nome_mae"))
+                .dataNascimento(LocalDate.parse(valor(record, "data_nascimento").substring(0, 10)))
+                .cep(valor(record, "cep"))
+                .endereco(valor(record, "endereco"))
+                .numEndereco(valor(record, "num_endereco"))
+                .complemento(valor(record, "complemento"))
+                .bairro(valor(record, "bairro"))
+                .cidade(valor(record, "cidade"))
+                .estado(valor(record, "estado"))
+                .telefoneCelular(valor(record, "telefone_celular"))
+                .telefoneResponsavel(valor(record, "telefone_responsavel"))
+                .email(valor(record, "email"))
+                .sexo(valor(record, "sexo"))
+                .numCartaoSus(valor(record, "num_cartao_sus"))
+                .ehTabagista(parseBoolean(valor(record, "eh_tabagista")))
+                .ehEtilista(parseBoolean(valor(record, "eh_etilista")))
+                .temLesaoSuspeita(parseBoolean(valor(record, "tem_lesao_suspeita")))
+                .participaSmartMonitor(parseBoolean(valor(record, "participa_smart_monitor")))
+                .build();
     }
 
-    private Boolean parseBoolean(String value) {
+    private static Boolean parseBoolean(String value) {
         if (value == null) {
             return null;
         }
@@ -90,5 +366,30 @@ public class PacienteImportService implements CommandLineRunner {
 
         return value.equalsIgnoreCase("true");
     }
-}
 
+    private static String valor(CSVRecord record, String coluna) {
+        // Colunas opcionais ausentes do cabeçalho viram null; linhas com menos valores que o cabeçalho falham.
+        return record.isMapped(coluna) ? record.get(coluna) : null;
+    }
+
+    private static long numeroDaLinha(CSVRecord record) {
+        // A linha 1 é o cabeçalho; registros com quebra de linha entre aspas deslocam a contagem.
+        return record.getRecordNumber() + 1;
+    }
+
+    private static String descreverErro(RuntimeException e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    private static String truncar(String valor, int tamanhoMaximo) {
+        return valor.length() <= tamanhoMaximo ? valor : valor.substring(0, tamanhoMaximo);
+    }
+
+    private record LinhaConvertida(CSVRecord record, Paciente paciente) {}
+
+    private record LinhaRejeitada(CSVRecord record, String motivo) {}
+
+    private record BlocoConvertido(List<LinhaConvertida> linhas, List<LinhaRejeitada> rejeitadas, long ultimoRegistro) {}
+
+    private record ResultadoLote(int gravadas, int rejeitadas) {}
+}
@@ -0,0 +1,143 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import com.sobrevidas.crud_pacientes.dto.PacienteLoteItemDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteLoteResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteRequestDTO;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.exception.ResourceAlreadyExistsException;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapper;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cadastro em lote: valida todos os itens, resolve os CPFs já existentes com uma única consulta
+ * {@code cpf IN (...)} e grava inserções e atualizações na mesma transação, deixando o Hibernate agrupá-las em
+ * batches JDBC ({@code hibernate.jdbc.batch_size}). Itens inválidos são rejeitados individualmente, sem
+ * impedir a gravação dos demais.
+ */
+@Service
+@RequiredArgsConstructor
+public class PacienteLoteService {
+
+    public static final int TAMANHO_MAXIMO_LOTE = 1000;
+
+    static final String CRIADO = "CRIADO";
+    static final String ATUALIZADO = "ATUALIZADO";
+    static final String REJEITADO = "REJEITADO";
+
+    private final PacienteRepository repository;
+    private final PacienteMapper mapper;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final CpfIndiceService cpfIndice;
+    private final PacienteEventoService eventos;
+
+    @Transactional
+    public PacienteLoteResponseDTO salvarPacientes(List<PacienteRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new InvalidRequestException("O lote deve conter ao menos um paciente.");
+        }
+        if (dtos.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new InvalidRequestException("O lote deve conter no máximo " + TAMANHO_MAXIMO_LOTE + " pacientes.");
+        }
+
+        PacienteLoteItemDTO[] resultados = new PacienteLoteItemDTO[dtos.size()];
+        Map<String, Integer> indicePorCpf = new LinkedHashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            PacienteRequestDTO dto = dtos.get(i);
+            Map<String, String> erros = validar(dto);
+            if (erros.isEmpty() && indicePorCpf.containsKey(dto.cpf())) {
+                erros = Map.of("cpf", "CPF repetido no lote (item " + indicePorCpf.get(dto.cpf()) + ").");
+            }
+            if (!erros.isEmpty()) {
+                resultados[i] = new PacienteLoteItemDTO(i, dto == null ? null : dto.cpf(), REJEITADO, null, erros);
+            } else {
+                indicePorCpf.put(dto.cpf(), i);
+            }
+        }
+
+        Map<String, Paciente> existentes = indicePorCpf.isEmpty()
+                ? Map.of()
+                : repository.findByCpfIn(indicePorCpf.keySet()).stream()
+                        .collect(Collectors.toMap(Paciente::getCpf, Function.identity()));
+
+        // O @Version só sobe no flush se algum campo mudou; sem a versão anterior não há como saber quem mudou.
+        Map<Long, Long> versoesAnteriores = existentes.values().stream()
+                .collect(Collectors.toMap(Paciente::getId, Paciente::getVersao));
+        Map<Integer, Paciente> gravados = new HashMap<>();
+        List<Paciente> novos = new ArrayList<>();
+        indicePorCpf.forEach((cpf, indice) -> {
+            PacienteRequestDTO dto = dtos.get(indice);
+            Paciente paciente = existentes.get(cpf);
+            if (paciente != null) {
+                // Entidade gerenciada: o UPDATE sai no flush, junto com os demais.
+                mapper.updateEntityFromDto(dto, paciente);
+            } else {
+                paciente = mapper.toEntity(dto);
+                novos.add(paciente);
+            }
+            gravados.put(indice, paciente);
+        });
+
+        cpfIndice.registrar(novos.stream().map(Paciente::getCpf).toList());
+        repository.saveAll(novos);
+        try {
+            repository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // As demais violações (ex.: valor maior que a coluna) seguem para o tratamento genérico.
+            if (!PacienteService.violouCpfUnico(e)) {
+                throw e;
+            }
+            throw new ResourceAlreadyExistsException(
+                    "Um dos CPFs do lote foi cadastrado por outra requisição durante a gravação. Reenvie o lote.");
+        }
+        List<Paciente> alterados = existentes.values().stream()
+                .filter(paciente -> paciente.getVersao() != versoesAnteriores.get(paciente.getId()))
+                .toList();
+        eventos.registrar(TipoEventoPaciente.CRIADO, novos);
+        eventos.registrar(TipoEventoPaciente.ATUALIZADO, alterados);
+
+        Cache cache = cacheManager.getCache(CacheConfig.PACIENTES);
+        if (cache != null) {
+            alterados.forEach(paciente -> cache.evict(paciente.getId()));
+        }
+
+        gravados.forEach((indice, paciente) -> resultados[indice] = new PacienteLoteItemDTO(
+                indice, paciente.getCpf(), existentes.containsKey(paciente.getCpf()) ? ATUALIZADO : CRIADO,
+                paciente.getId(), null));
+
+        List<PacienteLoteItemDTO> itens = Arrays.asList(resultados);
+        return new PacienteLoteResponseDTO(
+                contar(itens, CRIADO), contar(itens, ATUALIZADO), contar(itens, REJEITADO), itens);
+    }
+
+    private Map<String, String> validar(PacienteRequestDTO dto) {
+        if (dto == null) {
+            return Map.of("paciente", "O item do lote não pode ser nulo.");
+        }
+        return validator.validate(dto).stream()
+                .collect(Collectors.toMap(
+                        violacao -> violacao.getPropertyPath().toString(),
+                        ConstraintViolation::getMessage,
+                        (a, b) -> a,
+                        TreeMap::new));
+    }
+
+    private static int contar(List<PacienteLoteItemDTO> itens, String status) {
+        return (int) itens.stream().filter(item -> item.status().equals(status)).count();
+    }
+}
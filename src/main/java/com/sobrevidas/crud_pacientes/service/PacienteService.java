@@ -1,85 +1,297 @@
 package com.sobrevidas.crud_pacientes.service;
 
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import com.sobrevidas.crud_pacientes.dto.CursorPageResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteFiltroDTO;
 import com.sobrevidas.crud_pacientes.dto.PacientePatchDTO;
 import com.sobrevidas.crud_pacientes.dto.PacienteRequestDTO;
 import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResumoDTO;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.exception.PreconditionFailedException;
 import com.sobrevidas.crud_pacientes.exception.ResourceAlreadyExistsException;
 import com.sobrevidas.crud_pacientes.exception.ResourceNotFoundException;
 import com.sobrevidas.crud_pacientes.mapper.PacienteMapper;
 import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
 import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
-import jakarta.transaction.Transactional;
+import com.sobrevidas.crud_pacientes.repository.PacienteSpecifications;
+import com.sobrevidas.crud_pacientes.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
+@Timed(PacienteService.METRICA)
 public class PacienteService {
 
+    /**
+     * Timer de todos os métodos públicos, com as tags {@code class} e {@code method} (e {@code exception} nas
+     * falhas); o histograma para p95/p99 é ligado em {@code management.metrics.distribution.*}.
+     */
+    public static final String METRICA = "pacientes.servico";
+
+
+    public static final int TAMANHO_PAGINA_PADRAO = 50;
+    public static final int TAMANHO_PAGINA_MAXIMO = 500;
+    public static final int LIMITE_BUSCA_NOME_PADRAO = 20;
+    public static final int LIMITE_BUSCA_NOME_MAXIMO = 100;
+    // Com menos de 3 caracteres não há trigrama completo e o índice não consegue restringir a busca.
+    static final int TAMANHO_MINIMO_TERMO = 3;
+
     private final PacienteRepository repository;
     private final PacienteMapper mapper;
+    private final CpfIndiceService cpfIndice;
+    private final CacheManager cacheManager;
+    private final PacienteEventoService eventos;
+
+    // As listagens projetam direto para o DTO de saída (sem entidade nem MapStruct); leituras que ainda carregam
+    // entidades usam transação somente leitura, em que o Hibernate não guarda snapshot nem faz flush.
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PacienteResponseDTO> listarPacientes(String cursor, Integer tamanho) {
+        return listar(cursor, tamanho, PacienteResponseDTO.class, PacienteResponseDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PacienteResumoDTO> listarResumos(String cursor, Integer tamanho) {
+        return listar(cursor, tamanho, PacienteResumoDTO.class, PacienteResumoDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PacienteResponseDTO> buscarPacientes(PacienteFiltroDTO filtro, String cursor, Integer tamanho) {
+        return buscar(filtro, cursor, tamanho, PacienteResponseDTO.class, PacienteResponseDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<PacienteResumoDTO> buscarResumos(PacienteFiltroDTO filtro, String cursor, Integer tamanho) {
+        return buscar(filtro, cursor, tamanho, PacienteResumoDTO.class, PacienteResumoDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PacienteResponseDTO> buscarPorNome(String q, Integer limite) {
+        String termo = normalizarTermo(q);
+        if (termo.length() < TAMANHO_MINIMO_TERMO) {
+            throw new InvalidRequestException("O termo de busca deve ter ao menos " + TAMANHO_MINIMO_TERMO + " caracteres.");
+        }
+        int limiteResultados = limite == null ? LIMITE_BUSCA_NOME_PADRAO : Math.clamp(limite, 1, LIMITE_BUSCA_NOME_MAXIMO);
 
-    public List<PacienteResponseDTO> listarTodosPacientes() {
-        return repository.findAll()
-                .stream()
+        return repository.buscarPorNomeSemelhante(termo, limiteResultados).stream()
                 .map(mapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
+    @Cacheable(cacheNames = CacheConfig.PACIENTES, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public PacienteResponseDTO buscarPacientePorId(Long id) {
         return repository.findById(id)
                 .map(mapper::toResponseDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente não encontrado com id: " + id));
     }
 
-    @Transactional
-    public PacienteResponseDTO salvarPaciente(PacienteRequestDTO dto) {
-        if (repository.existsByCpf(dto.cpf())) {
-            throw new ResourceAlreadyExistsException("CPF já cadastrado.");
+    /**
+     * Versão atual do paciente, para revalidar uma ETag sem carregar a entidade: vem do cache quando o paciente
+     * está lá, senão de uma consulta só da coluna versao pela chave primária.
+     */
+    public long buscarVersaoPacientePorId(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.PACIENTES);
+        PacienteResponseDTO emCache = cache == null ? null : cache.get(id, PacienteResponseDTO.class);
+        if (emCache != null && emCache.versao() != null) {
+            return emCache.versao();
         }
+        return repository.buscarVersaoPorId(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Paciente não encontrado com id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public PacienteResponseDTO buscarPacientePorCpf(String cpf) {
+        validarCpf(cpf);
+        if (!cpfIndice.podeExistir(cpf)) {
+            throw new ResourceNotFoundException("Paciente não encontrado com CPF: " + cpf);
+        }
+        return repository.findByCpf(cpf)
+                .map(mapper::toResponseDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Paciente não encontrado com CPF: " + cpf));
+    }
+
+    public boolean existePacienteComCpf(String cpf) {
+        validarCpf(cpf);
+        return cpfIndice.podeExistir(cpf) && repository.existsByCpf(cpf);
+    }
 
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.PACIENTES, key = "#result.id")
+    public PacienteResponseDTO salvarPaciente(PacienteRequestDTO dto) {
+        // Sem consulta prévia: o índice único de cpf decide, o que também cobre dois cadastros simultâneos.
         Paciente paciente = mapper.toEntity(dto);
-        Paciente pacienteSalvo = repository.save(paciente);
-        return mapper.toResponseDTO(pacienteSalvo);
+        cpfIndice.registrar(paciente.getCpf());
+        try {
+            Paciente pacienteSalvo = repository.saveAndFlush(paciente);
+            eventos.registrar(TipoEventoPaciente.CRIADO, pacienteSalvo);
+            return mapper.toResponseDTO(pacienteSalvo);
+        } catch (DataIntegrityViolationException e) {
+            if (violouCpfUnico(e)) {
+                throw new ResourceAlreadyExistsException("CPF já cadastrado.");
+            }
+            throw e;
+        }
     }
 
     @Transactional
-    public PacienteResponseDTO atualizarPaciente(Long id, PacienteRequestDTO dto) {
+    @CachePut(cacheNames = CacheConfig.PACIENTES, key = "#id")
+    public PacienteResponseDTO atualizarPaciente(Long id, PacienteRequestDTO dto, Long versaoEsperada) {
         Paciente pacienteExistente = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente não encontrado com id: " + id));
+        verificarVersao(pacienteExistente, versaoEsperada);
 
-        if (!pacienteExistente.getCpf().equals(dto.cpf()) && repository.existsByCpf(dto.cpf())) {
-            throw new ResourceAlreadyExistsException("CPF já cadastrado para outro paciente.");
+        if (!pacienteExistente.getCpf().equals(dto.cpf())) {
+            // O índice em memória descarta a consulta quando o novo CPF com certeza não está cadastrado.
+            if (cpfIndice.podeExistir(dto.cpf()) && repository.existsByCpf(dto.cpf())) {
+                throw new ResourceAlreadyExistsException("CPF já cadastrado para outro paciente.");
+            }
+            cpfIndice.registrar(dto.cpf());
         }
 
         mapper.updateEntityFromDto(dto, pacienteExistente);
 
-        Paciente pacienteSalvo = repository.save(pacienteExistente);
+        // saveAndFlush: a versão só é incrementada no flush, e a resposta (e o cache) precisam da versão nova.
+        Paciente pacienteSalvo = repository.saveAndFlush(pacienteExistente);
+        eventos.registrar(TipoEventoPaciente.ATUALIZADO, pacienteSalvo);
 
         return mapper.toResponseDTO(pacienteSalvo);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PACIENTES, key = "#id")
     public void removerPaciente(Long id) {
         if (!repository.existsById(id)) {
             throw new ResourceNotFoundException("Paciente não encontrado com id: " + id);
         }
         repository.deleteById(id);
+        // O DELETE bloqueia a linha antes de o evento tirar o seu id da sequência (ver PacienteEvento.id).
+        repository.flush();
+        eventos.registrarRemocao(id);
     }
 
     @Transactional
-    public PacienteResponseDTO atualizarPacienteParcial(Long id, PacientePatchDTO dto) {
+    @CachePut(cacheNames = CacheConfig.PACIENTES, key = "#id")
+    public PacienteResponseDTO atualizarPacienteParcial(Long id, PacientePatchDTO dto, Long versaoEsperada) {
         Paciente pacienteExistente = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente não encontrado com id: " + id));
+        verificarVersao(pacienteExistente, versaoEsperada);
 
         mapper.patchEntityFromDto(dto, pacienteExistente);
 
-        Paciente pacienteSalvo = repository.save(pacienteExistente);
+        Paciente pacienteSalvo = repository.saveAndFlush(pacienteExistente);
+        eventos.registrar(TipoEventoPaciente.ATUALIZADO, pacienteSalvo);
 
         return mapper.toResponseDTO(pacienteSalvo);
     }
 
+    private <T> CursorPageResponseDTO<T> listar(String cursor, Integer tamanho, Class<T> tipo, Function<T, Long> id) {
+        long ultimoId = CursorCodec.decode(cursor);
+        int tamanhoPagina = normalizarTamanhoPagina(tamanho);
+
+        // Busca um item a mais para saber se existe próxima página sem precisar de um count().
+        List<T> itens = repository.findByIdGreaterThanOrderByIdAsc(ultimoId, Limit.of(tamanhoPagina + 1), tipo);
+
+        return montarPagina(itens, tamanhoPagina, id);
+    }
+
+    private <T> CursorPageResponseDTO<T> buscar(PacienteFiltroDTO filtro, String cursor, Integer tamanho,
+                                                Class<T> tipo, Function<T, Long> id) {
+        if (filtro.idadeMinima() != null && filtro.idadeMaxima() != null && filtro.idadeMinima() > filtro.idadeMaxima()) {
+            throw new InvalidRequestException("A idade mínima não pode ser maior que a idade máxima.");
+        }
+        long ultimoId = CursorCodec.decode(cursor);
+        int tamanhoPagina = normalizarTamanhoPagina(tamanho);
+
+        List<T> itens = repository.findBy(
+                PacienteSpecifications.comFiltro(filtro, ultimoId, LocalDate.now()),
+                query -> query.as(tipo).sortBy(Sort.by("id")).limit(tamanhoPagina + 1).all());
+
+        return montarPagina(itens, tamanhoPagina, id);
+    }
+
+    private static <T> CursorPageResponseDTO<T> montarPagina(List<T> itens, int tamanhoPagina, Function<T, Long> id) {
+        boolean temProxima = itens.size() > tamanhoPagina;
+        List<T> conteudo = temProxima ? itens.subList(0, tamanhoPagina) : itens;
+
+        String proximoCursor = temProxima
+                ? CursorCodec.encode(id.apply(conteudo.getLast()))
+                : null;
+
+        return new CursorPageResponseDTO<>(conteudo, proximoCursor, conteudo.size());
+    }
+
+    static String normalizarTermo(String q) {
+        if (q == null) {
+            return "";
+        }
+        // Mesma normalização da expressão indexada: f_unaccent(lower(...)).
+        return Normalizer.normalize(q, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+
+    /**
+     * If-Match: a versão lida pelo cliente precisa ser a atual. Uma gravação concorrente entre esta verificação e o
+     * flush ainda é barrada pelo {@code WHERE versao = ?} do UPDATE (ObjectOptimisticLockingFailureException).
+     */
+    private static void verificarVersao(Paciente paciente, Long versaoEsperada) {
+        if (versaoEsperada != null && versaoEsperada != paciente.getVersao()) {
+            throw new PreconditionFailedException(
+                    "O paciente foi alterado desde a versão informada em If-Match. Versão atual: " + paciente.getVersao() + ".");
+        }
+    }
+
+    /**
+     * Só a violação de unicidade (SQLState 23505, o mesmo no PostgreSQL e no H2) vira 409; as demais, como um valor
+     * maior que a coluna, seguem como erro do banco. A outra restrição única da tabela é a chave primária.
+     */
+    static boolean violouCpfUnico(DataIntegrityViolationException e) {
+        if (!(e.getMostSpecificCause() instanceof SQLException sql) || !"23505".equals(sql.getSQLState())) {
+            return false;
+        }
+        String restricao = e.getCause() instanceof ConstraintViolationException violacao
+                ? violacao.getConstraintName()
+                : null;
+        return restricao == null || !restricao.toLowerCase(Locale.ROOT).endsWith("_pkey");
+    }
+
+    private static void validarCpf(String cpf) {
+        if (CpfIndiceService.chave(cpf) < 0) {
+            throw new InvalidRequestException("CPF deve ter 11 dígitos numéricos.");
+        }
+    }
+
+    private int normalizarTamanhoPagina(Integer tamanho) {
+        if (tamanho == null) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        if (tamanho < 1) {
+            throw new InvalidRequestException("O tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
 }
@@ -0,0 +1,100 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.dto.PacienteRemovidoDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.SincronizacaoPacientesDTO;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.repository.PacienteEventoRepository;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import com.sobrevidas.crud_pacientes.util.MarcaSincronizacao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Sincronização incremental ({@code GET /pacientes/sync}) para clientes que guardam uma cópia do cadastro, como os
+ * tablets das unidades de saúde. Cada resposta traz só o que mudou depois da marca enviada: os pacientes com
+ * {@code atualizadoEm} posterior a ela e as remoções (os eventos REMOVIDO do outbox, já que a linha do paciente é
+ * apagada), então o custo acompanha o volume de alterações e não o tamanho do cadastro.
+ *
+ * <p>O {@code atualizadoEm} é gravado antes do commit, e uma transação pode confirmar depois de outra que gravou um
+ * instante maior. Por isso cada sincronização só vai até {@code agora - margem}: o que é mais recente fica para a
+ * próxima. A margem precisa ser maior que o intervalo entre gravar o {@code atualizadoEm} e confirmar: uma transação
+ * da API ou um lote da importação JPA; o COPY grava o instante das linhas mescladas só no fim, antes do commit.
+ */
+@Service
+public class PacienteSincronizacaoService {
+
+    public static final int TAMANHO_PAGINA_PADRAO = 500;
+    public static final int TAMANHO_PAGINA_MAXIMO = 2000;
+
+    private final PacienteRepository repository;
+    private final PacienteEventoRepository eventoRepository;
+    private final Duration margem;
+    private final Clock relogio;
+
+    @Autowired
+    public PacienteSincronizacaoService(PacienteRepository repository,
+                                        PacienteEventoRepository eventoRepository,
+                                        @Value("${pacientes.sync.margem:1m}") Duration margem) {
+        this(repository, eventoRepository, margem, Clock.systemUTC());
+    }
+
+    PacienteSincronizacaoService(PacienteRepository repository, PacienteEventoRepository eventoRepository,
+                                 Duration margem, Clock relogio) {
+        this.repository = repository;
+        this.eventoRepository = eventoRepository;
+        this.margem = margem;
+        this.relogio = relogio;
+    }
+
+    @Transactional(readOnly = true)
+    public SincronizacaoPacientesDTO sincronizar(String since, Integer tamanho) {
+        MarcaSincronizacao desde = MarcaSincronizacao.decodificar(since);
+        int tamanhoPagina = normalizarTamanhoPagina(tamanho);
+        Instant ate = relogio.instant().minus(margem).truncatedTo(ChronoUnit.MICROS);
+        if (desde != null && desde.instante().isAfter(ate)) {
+            // Marca gerada com uma margem menor (ou outro relógio): nada novo até o limite atual.
+            return new SincronizacaoPacientesDTO(List.of(), List.of(), since, false);
+        }
+
+        Instant inicio = desde == null ? Instant.EPOCH : desde.instante();
+        long ultimoId = desde == null ? 0L : desde.ultimoId();
+        // Um item a mais para saber se a página não esgotou as alterações.
+        List<PacienteResponseDTO> pacientes = repository.buscarAlteradosDesde(
+                inicio, ultimoId, ate, Limit.of(tamanhoPagina + 1), PacienteResponseDTO.class);
+        boolean temMais = pacientes.size() > tamanhoPagina;
+        List<PacienteResponseDTO> alterados = temMais ? pacientes.subList(0, tamanhoPagina) : pacientes;
+
+        // Sem mais páginas, a marca avança até o limite (ultimoId máximo: a próxima busca começa depois de 'ate').
+        MarcaSincronizacao proxima = temMais
+                ? new MarcaSincronizacao(alterados.getLast().atualizadoEm(), alterados.getLast().id())
+                : new MarcaSincronizacao(ate, Long.MAX_VALUE);
+
+        // Na primeira sincronização o cliente não tem o que apagar.
+        List<PacienteRemovidoDTO> removidos = desde == null
+                ? List.of()
+                : eventoRepository.buscarRemocoes(TipoEventoPaciente.REMOVIDO, inicio, proxima.instante());
+
+        return new SincronizacaoPacientesDTO(alterados, removidos, proxima.codificar(), temMais);
+    }
+
+    private static int normalizarTamanhoPagina(Integer tamanho) {
+        if (tamanho == null) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        if (tamanho < 1) {
+            throw new InvalidRequestException("O tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
+}
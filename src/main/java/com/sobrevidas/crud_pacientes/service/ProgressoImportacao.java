@@ -0,0 +1,12 @@
+package com.sobrevidas.crud_pacientes.service;
+
+@FunctionalInterface
+public interface ProgressoImportacao {
+
+    ProgressoImportacao NENHUM = (gravadas, rejeitadas) -> { };
+
+    /**
+     * Chamado logo após o commit de cada lote.
+     */
+    void loteGravado(int gravadas, int rejeitadas);
+}
@@ -0,0 +1,45 @@
+package com.sobrevidas.crud_pacientes.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InputStream que acumula em um {@link AtomicLong} quantos bytes já foram lidos, para acompanhar o progresso
+ * de uma leitura a partir de outra thread.
+ */
+public class ContadorBytesInputStream extends FilterInputStream {
+
+    private final AtomicLong bytesLidos;
+
+    public ContadorBytesInputStream(InputStream in, AtomicLong bytesLidos) {
+        super(in);
+        this.bytesLidos = bytesLidos;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            bytesLidos.incrementAndGet();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int lidos = super.read(b, off, len);
+        if (lidos > 0) {
+            bytesLidos.addAndGet(lidos);
+        }
+        return lidos;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long pulados = super.skip(n);
+        bytesLidos.addAndGet(pulados);
+        return pulados;
+    }
+}
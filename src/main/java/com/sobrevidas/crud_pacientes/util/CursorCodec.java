@@ -0,0 +1,41 @@
+package com.sobrevidas.crud_pacientes.util;
+
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica a posição de uma paginação por chave (keyset) em um token opaco para o cliente.
+ * O token carrega apenas o último id retornado; o cliente não deve depender do seu formato.
+ */
+public final class CursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Long ultimoId) {
+        if (ultimoId == null) {
+            return null;
+        }
+        return ENCODER.encodeToString(Long.toString(ultimoId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long id = Long.parseLong(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+            if (id < 0) {
+                throw new InvalidRequestException("Cursor de paginação inválido.");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.sobrevidas.crud_pacientes.util;
+
+import com.sobrevidas.crud_pacientes.dto.CursorPageResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * ETags dos recursos de paciente. A de um paciente é a sua versão ({@code @Version}), forte, porque é a que volta
+ * no If-Match. A de uma página é um resumo dos pares id/versão e do próximo cursor, calculado sem serializar o
+ * corpo: é fraca, já que identifica o conteúdo e não os bytes (JSON, CBOR ou Smile, com ou sem gzip). O Tomcat
+ * também não comprime respostas com ETag forte.
+ */
+public final class ETags {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final int BYTES_RESUMO_PAGINA = 16;
+
+    private ETags() {
+    }
+
+    public static String paciente(long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    public static String pagina(CursorPageResponseDTO<PacienteResponseDTO> pagina) {
+        MessageDigest digest = sha256();
+        ByteBuffer par = ByteBuffer.allocate(2 * Long.BYTES);
+        for (PacienteResponseDTO paciente : pagina.conteudo()) {
+            par.clear();
+            par.putLong(paciente.id()).putLong(paciente.versao() == null ? -1 : paciente.versao());
+            digest.update(par.array());
+        }
+        if (pagina.proximoCursor() != null) {
+            digest.update(pagina.proximoCursor().getBytes(StandardCharsets.US_ASCII));
+        }
+        byte[] resumo = digest.digest();
+        return "W/\"" + ENCODER.encodeToString(Arrays.copyOf(resumo, BYTES_RESUMO_PAGINA)) + "\"";
+    }
+
+    /**
+     * Versões aceitas por um cabeçalho If-Match, que pode listar várias ETags separadas por vírgula: {@code null}
+     * quando ausente ou "*" (qualquer versão). ETags que não foram emitidas por esta API (fracas, que o If-Match nunca
+     * aceita, ou de outro formato) ficam de fora, então a lista pode vir vazia e nenhuma versão corresponde.
+     */
+    public static List<Long> versoesEsperadas(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versoes = new ArrayList<>();
+        for (String etag : ifMatch.split(",")) {
+            Long versao = versao(etag.trim());
+            if (versao != null) {
+                versoes.add(versao);
+            }
+        }
+        return versoes;
+    }
+
+    private static Long versao(String etag) {
+        if (etag.length() < 3 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Long.parseLong(etag.substring(1, etag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+}
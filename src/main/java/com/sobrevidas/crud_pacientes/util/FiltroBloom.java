@@ -0,0 +1,76 @@
+package com.sobrevidas.crud_pacientes.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para chaves {@code long}: responde "com certeza não existe" ou "talvez exista", nunca o contrário.
+ * Os bits ficam em um {@link AtomicLongArray}, então inclusões e consultas podem ocorrer em paralelo sem trava.
+ * Não há remoção: uma chave incluída continua respondendo "talvez exista".
+ */
+public final class FiltroBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoesHash;
+
+    public FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("A capacidade deve ser maior que zero.");
+        }
+        if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("A taxa de falso positivo deve estar entre 0 e 1.");
+        }
+        long palavras = Math.max(1, (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (LN2 * LN2) / Long.SIZE));
+        if (palavras > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacidade grande demais para o filtro: " + capacidade);
+        }
+        this.bits = new AtomicLongArray((int) palavras);
+        this.totalBits = palavras * Long.SIZE;
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / capacidade * LN2));
+    }
+
+    public void adicionar(long chave) {
+        long hash = misturar(chave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= funcoesHash; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, totalBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = bits.get(palavra);
+            }
+        }
+    }
+
+    public boolean podeConter(long chave) {
+        long hash = misturar(chave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= funcoesHash; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, totalBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long tamanhoEmBytes() {
+        return totalBits / Byte.SIZE;
+    }
+
+    // Finalizador do MurmurHash3: espalha chaves sequenciais (CPFs próximos) por todo o vetor de bits.
+    private static long misturar(long chave) {
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb53a309b5ed3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,47 @@
+package com.sobrevidas.crud_pacientes.util;
+
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Marca d'água da sincronização ({@code GET /pacientes/sync}), entregue ao cliente como token opaco: o
+ * {@code atualizadoEm} e o id do último paciente entregue, que juntos formam a chave da paginação. O instante é
+ * guardado em microssegundos, a precisão das colunas de data e hora do PostgreSQL.
+ */
+public record MarcaSincronizacao(Instant instante, long ultimoId) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String codificar() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, instante);
+        return ENCODER.encodeToString((micros + ":" + ultimoId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return a marca do token, ou {@code null} quando o token é vazio (primeira sincronização)
+     */
+    public static MarcaSincronizacao decodificar(String marca) {
+        if (marca == null || marca.isBlank()) {
+            return null;
+        }
+        try {
+            String[] partes = new String(DECODER.decode(marca), StandardCharsets.US_ASCII).split(":", -1);
+            if (partes.length != 2) {
+                throw new InvalidRequestException("Marca de sincronização inválida.");
+            }
+            long micros = Long.parseLong(partes[0]);
+            long ultimoId = Long.parseLong(partes[1]);
+            if (micros < 0 || ultimoId < 0) {
+                throw new InvalidRequestException("Marca de sincronização inválida.");
+            }
+            return new MarcaSincronizacao(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ultimoId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Marca de sincronização inválida.");
+        }
+    }
+}
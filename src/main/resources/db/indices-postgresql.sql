@@ -0,0 +1,44 @@
+-- Índices e funções que o Hibernate não sabe declarar. Executado após o ddl-auto, a cada inicialização.
+
+-- IDs de pacientes vêm da sequência pacientes_seq (incremento 50, ver Paciente.id). Em bancos que já tinham
+-- pacientes gerados por IDENTITY, a sequência nasce em 1 e colidiria com eles: avança até o maior id existente.
+-- Sequências não são transacionais, então o setval só roda quando a sequência está atrás dos ids da tabela. No caso
+-- normal (a sequência à frente) nada é gravado, e um nextval de outra réplica entre a leitura e a escrita não pode
+-- ser desfeito por esta inicialização.
+SELECT setval('pacientes_seq', t.maior_id)
+FROM (SELECT max(id) AS maior_id FROM pacientes) t
+WHERE t.maior_id > (SELECT last_value FROM pacientes_seq);
+
+-- Poucos pacientes têm lesão suspeita: o índice parcial fica pequeno e atende a busca mais usada pela triagem
+-- já na ordem do cursor (id); filtros de localidade extras são aplicados sobre poucas linhas.
+CREATE INDEX IF NOT EXISTS idx_pacientes_lesao_suspeita
+    ON pacientes (id)
+    WHERE tem_lesao_suspeita;
+
+-- Ids dos eventos tirados um a um da sequência (ver PacienteEvento.id); corrige bancos criados com incremento 50.
+ALTER SEQUENCE IF EXISTS pacientes_eventos_seq INCREMENT BY 1;
+
+-- Outbox (pacientes_eventos): o relay procura só os eventos ainda não publicados, que são poucos a cada ciclo.
+CREATE INDEX IF NOT EXISTS idx_pacientes_eventos_pendentes
+    ON pacientes_eventos (id)
+    WHERE posicao IS NULL;
+
+-- Remoções da sincronização (GET /pacientes/sync): eventos REMOVIDO por instante.
+CREATE INDEX IF NOT EXISTS idx_pacientes_eventos_removidos
+    ON pacientes_eventos (ocorrido_em)
+    WHERE tipo = 'REMOVIDO';
+
+-- Busca aproximada por nome e nome da mãe (GET /pacientes/search/nome): trigramas sobre o texto sem acentos.
+-- unaccent() é STABLE e não pode ser usada em índice; f_unaccent fixa o dicionário e é declarada IMMUTABLE.
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS unaccent WITH SCHEMA public;
+
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+CREATE INDEX IF NOT EXISTS idx_pacientes_nome_trgm
+    ON pacientes USING gin (f_unaccent(lower(nome)) public.gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_pacientes_nome_mae_trgm
+    ON pacientes USING gin (f_unaccent(lower(nome_mae)) public.gin_trgm_ops);
@@ -0,0 +1,32 @@
+package com.sobrevidas.crud_pacientes;
+
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapperImpl;
+import com.sobrevidas.crud_pacientes.service.CpfIndiceService;
+import com.sobrevidas.crud_pacientes.service.PacienteEventoService;
+import com.sobrevidas.crud_pacientes.service.PacienteService;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link DataJpaTest} sobre H2 com o {@link PacienteService} e suas dependências reais. Propriedades extras vão em
+ * {@code @TestPropertySource} e beans extras em outro {@code @Import} na própria classe de teste.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = {
+        // Os índices parciais de db/indices-postgresql.sql não existem no H2.
+        "spring.sql.init.mode=never",
+        // A carga do índice de CPFs em segundo plano somaria comandos às estatísticas medidas.
+        "pacientes.cpf-indice.habilitado=false"
+})
+@Import({PacienteService.class, PacienteEventoService.class, CpfIndiceService.class, PacienteMapperImpl.class, CacheConfig.class})
+public @interface PacienteJpaTest {
+}
@@ -0,0 +1,24 @@
+package com.sobrevidas.crud_pacientes;
+
+import com.sobrevidas.crud_pacientes.dto.PacienteRequestDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Requisições de cadastro válidas para os testes; só CPF e nome variam entre os pacientes.
+ */
+public final class PacientesTeste {
+
+    private PacientesTeste() {
+    }
+
+    public static PacienteRequestDTO paciente(String cpf, String nome) {
+        return new PacienteRequestDTO(
+                cpf, nome, LocalDate.of(1990, 1, 1),
+                "Mae Teste", "74000000", "Rua Teste", "1",
+                "Casa", "Bairro Teste", "Cidade Teste", "GO",
+                "62999999999", "62988888888", "teste@teste.com",
+                "Masculino", "987654321",
+                false, false, false, false);
+    }
+}
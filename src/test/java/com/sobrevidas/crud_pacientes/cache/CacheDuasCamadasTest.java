@@ -0,0 +1,162 @@
+package com.sobrevidas.crud_pacientes.cache;
+
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simula duas réplicas no mesmo processo: cada uma com o seu Caffeine, compartilhando um
+ * {@link ConcurrentMapCache} no papel do Redis e um canal de invalidação em memória no papel do pub/sub.
+ */
+class CacheDuasCamadasTest {
+
+    private ConcurrentMapCacheManager redis;
+    private CanalEmMemoria canal;
+    private Cache replicaA;
+    private Cache replicaB;
+
+    @BeforeEach
+    void setUp() {
+        redis = new ConcurrentMapCacheManager(CacheConfig.PACIENTES);
+        canal = new CanalEmMemoria();
+        replicaA = replica(redis, canal).getCache(CacheConfig.PACIENTES);
+        replicaB = replica(redis, canal).getCache(CacheConfig.PACIENTES);
+    }
+
+    @Test
+    @DisplayName("uma réplica lê da camada compartilhada o que a outra carregou, sem ir ao banco")
+    void get_ReplicaLeValorCarregadoPorOutra() {
+        AtomicInteger consultasAoBanco = new AtomicInteger();
+
+        assertEquals("v1", replicaA.get(7L, () -> "v" + consultasAoBanco.incrementAndGet()));
+        assertEquals("v1", replicaB.get(7L, () -> "v" + consultasAoBanco.incrementAndGet()));
+
+        assertEquals(1, consultasAoBanco.get());
+    }
+
+    @Test
+    @DisplayName("escrita em uma réplica invalida a cópia local da outra, que passa a ler o valor novo")
+    void put_InvalidaCopiaLocalDasOutrasReplicas() {
+        replicaA.put(7L, "antigo");
+        assertEquals("antigo", replicaB.get(7L).get());
+
+        replicaA.put(7L, "novo");
+
+        assertEquals("novo", replicaB.get(7L).get());
+        assertEquals(List.of("7", "7"), canal.chavesPublicadas);
+    }
+
+    @Test
+    @DisplayName("remoção em uma réplica some das duas camadas em todas as réplicas")
+    void evict_RemoveEmTodasAsReplicas() {
+        replicaA.put(7L, "valor");
+        replicaB.get(7L);
+
+        replicaA.evict(7L);
+
+        assertNull(replicaB.get(7L));
+        assertNull(redis.getCache(CacheConfig.PACIENTES).get("7"));
+    }
+
+    @Test
+    @DisplayName("carga concorrente não sobrescreve a versão mais nova gravada por outra réplica")
+    void get_CargaAtrasadaNaoSobrescreveVersaoNova() {
+        // Canal próprio: a mensagem chegaria à réplica B em outra thread, depois da carga.
+        Cache outraReplica = replica(redis, new CanalEmMemoria()).getCache(CacheConfig.PACIENTES);
+
+        String lido = replicaB.get(7L, () -> {
+            // Enquanto a réplica B lê o banco, a outra réplica grava uma versão mais nova.
+            outraReplica.put(7L, "novo");
+            return "antigo";
+        });
+
+        assertEquals("novo", lido);
+        assertEquals("novo", redis.getCache(CacheConfig.PACIENTES).get("7").get());
+    }
+
+    @Test
+    @DisplayName("com a camada compartilhada fora do ar, leituras caem no banco e escritas não falham")
+    void camadaCompartilhadaIndisponivel_NaoPropagaFalha() {
+        SimpleCacheManager redisFora = new SimpleCacheManager();
+        redisFora.setCaches(List.of(new ConcurrentMapCache(CacheConfig.PACIENTES) {
+            @Override
+            public ValueWrapper get(Object key) {
+                throw new IllegalStateException("Redis indisponível");
+            }
+
+            @Override
+            public void put(Object key, Object value) {
+                throw new IllegalStateException("Redis indisponível");
+            }
+
+            @Override
+            public ValueWrapper putIfAbsent(Object key, Object value) {
+                throw new IllegalStateException("Redis indisponível");
+            }
+        }));
+        redisFora.afterPropertiesSet();
+        Cache cache = replica(redisFora, canal).getCache(CacheConfig.PACIENTES);
+
+        assertEquals("do banco", cache.get(7L, () -> "do banco"));
+        assertDoesNotThrow(() -> cache.put(8L, "valor"));
+        assertEquals("valor", cache.get(8L).get());
+    }
+
+    @Test
+    @DisplayName("as métricas da camada local saem com a tag camada, e a camada sem estatísticas é ignorada")
+    void metricas_SeparadasPorCamada() {
+        CaffeineCacheManager local = new CaffeineCacheManager(CacheConfig.PACIENTES);
+        local.setCacheSpecification("recordStats");
+        CacheDuasCamadas cache = (CacheDuasCamadas) new CacheDuasCamadasManager(local, redis, canal)
+                .getCache(CacheConfig.PACIENTES);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CacheDuasCamadasMeterBinderProvider().getMeterBinder(cache, Tags.empty()).bindTo(registry);
+
+        cache.get(7L, () -> "v");
+        cache.get(7L);
+
+        assertEquals(1, registry.get("cache.gets").tags("camada", "local", "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("camada", "local", "result", "miss").functionCounter().count());
+        // O ConcurrentMapCache no papel do Redis não tem estatísticas; com um RedisCache entraria como "compartilhado".
+        assertTrue(registry.find("cache.gets").tags("camada", "compartilhado").meters().isEmpty());
+    }
+
+    private static CacheManager replica(CacheManager compartilhado, CanalInvalidacaoCache canal) {
+        CaffeineCacheManager local = new CaffeineCacheManager(CacheConfig.PACIENTES);
+        local.setAllowNullValues(false);
+        return new CacheDuasCamadasManager(local, compartilhado, canal);
+    }
+
+    private static class CanalEmMemoria implements CanalInvalidacaoCache {
+
+        private final List<Consumer<InvalidacaoCache>> ouvintes = new CopyOnWriteArrayList<>();
+        private final List<String> chavesPublicadas = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publicar(InvalidacaoCache invalidacao) {
+            chavesPublicadas.add(invalidacao.chave());
+            ouvintes.forEach(ouvinte -> ouvinte.accept(invalidacao));
+        }
+
+        @Override
+        public void assinar(Consumer<InvalidacaoCache> ouvinte) {
+            ouvintes.add(ouvinte);
+        }
+    }
+}
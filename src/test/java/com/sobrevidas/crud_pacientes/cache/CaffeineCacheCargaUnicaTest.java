@@ -0,0 +1,118 @@
+package com.sobrevidas.crud_pacientes.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaffeineCacheCargaUnicaTest {
+
+    private static final int THREADS = 16;
+
+    private CaffeineCacheCargaUnica cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CaffeineCacheCargaUnica(CacheConfig.PACIENTES, Caffeine.newBuilder().recordStats().buildAsync(), false);
+    }
+
+    @Test
+    @DisplayName("leituras simultâneas da mesma chave ausente carregam uma vez só")
+    void get_LeiturasSimultaneas_CarregamUmaVez() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<String>> leituras = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < THREADS; i++) {
+                leituras.add(executor.submit(() -> {
+                    largada.await();
+                    return cache.get(7L, () -> {
+                        Thread.sleep(50);
+                        return "v" + cargas.incrementAndGet();
+                    });
+                }));
+            }
+            largada.countDown();
+            for (Future<String> leitura : leituras) {
+                assertEquals("v1", leitura.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, cargas.get());
+        assertEquals(1, cache.getNativeCache().stats().missCount());
+        assertEquals(THREADS - 1, cache.getNativeCache().stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("falha na carga chega a quem chamou sem deixar nada no cache")
+    void get_FalhaNaCarga_NaoFicaNoCache() {
+        IllegalStateException erro = assertThrows(IllegalStateException.class,
+                () -> cache.get(7L, () -> {
+                    throw new IllegalStateException("banco fora do ar");
+                }));
+
+        assertEquals("banco fora do ar", erro.getMessage());
+        assertNull(cache.get(7L));
+        assertEquals("v", cache.get(7L, () -> "v"));
+    }
+
+    @Test
+    @DisplayName("remoção durante a carga prevalece sobre o valor carregado")
+    void get_EvictDuranteACarga_DescartaValorCarregado() {
+        String lido = cache.get(7L, () -> {
+            cache.evict(7L);
+            return "antigo";
+        });
+
+        assertEquals("antigo", lido);
+        assertNull(cache.get(7L));
+    }
+
+    @Test
+    @DisplayName("carga bloqueante numa thread virtual não prende a thread de plataforma")
+    void get_CargaBloqueante_NaoPrendeThreadVirtual() throws Exception {
+        assertEquals(0, eventosDePinning(cache));
+        if (Runtime.version().feature() < 24) {
+            // Controle: no Java 21 o Caffeine síncrono carrega dentro de um synchronized e o JFR registra o pinning.
+            CaffeineCache sincrono = new CaffeineCache(CacheConfig.PACIENTES, Caffeine.newBuilder().build(), false);
+            assertTrue(eventosDePinning(sincrono) > 0);
+        }
+    }
+
+    private static int eventosDePinning(Cache cache) throws Exception {
+        Path arquivo = Files.createTempFile("pinning", ".jfr");
+        try (Recording gravacao = new Recording()) {
+            gravacao.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            gravacao.start();
+            Thread.ofVirtual().start(() -> cache.get(7L, () -> {
+                Thread.sleep(20);
+                return "v";
+            })).join();
+            gravacao.stop();
+            gravacao.dump(arquivo);
+            return RecordingFile.readAllEvents(arquivo).size();
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.sobrevidas.crud_pacientes.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sobrevidas.crud_pacientes.dto.ResultadoImportacaoDTO;
+import com.sobrevidas.crud_pacientes.service.PacienteImportService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga de ponta a ponta: sobe a aplicação inteira (Tomcat, segurança, cache, JPA) contra um H2 em
+ * memória e um emissor de JWT local no lugar do Keycloak, cadastra pacientes pelo importador de CSV e dispara
+ * tráfego HTTP misto. Não depende de rede nem de docker; roda só com {@code PACIENTES_CARGA} definida:
+ * <pre>
+ * PACIENTES_CARGA=1 ./mvnw test -Dtest=PacientesCargaTest
+ * </pre>
+ * Parâmetros (variáveis de ambiente):
+ * <ul>
+ *     <li>{@code PACIENTES_CARGA_PACIENTES}: pacientes importados antes da carga (padrão 10000);</li>
+ *     <li>{@code PACIENTES_CARGA_CONCORRENCIA}: clientes simultâneos (padrão 32);</li>
+ *     <li>{@code PACIENTES_CARGA_DURACAO}: duração da medição, após o aquecimento (padrão 30s);</li>
+ *     <li>{@code PACIENTES_CARGA_AQUECIMENTO}: tráfego descartado antes da medição (padrão 10s);</li>
+ *     <li>{@code PACIENTES_CARGA_MIX}: peso de cada operação, ex. {@code id=50,lista=10,busca=10,criar=10,patch=15,remover=5};</li>
+ *     <li>{@code PACIENTES_CARGA_THREADS_VIRTUAIS}: valor de {@code spring.threads.virtual.enabled} (padrão false).</li>
+ * </ul>
+ * Vazão e latências p50/p95/p99/máx por operação vão para o log. Os números valem para comparar mudanças na mesma
+ * máquina: o H2 não reproduz os planos nem a latência de rede do PostgreSQL.
+ */
+@EnabledIfEnvironmentVariable(named = "PACIENTES_CARGA", matches = ".+")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:carga;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        // Índices e extensões do PostgreSQL (db/indices-postgresql.sql) não existem no H2.
+        "spring.sql.init.mode=never",
+        "pacientes.importacao.inicial.habilitada=false",
+        "logging.level.org.hibernate.SQL=warn"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PacientesCargaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PacientesCargaTest.class);
+    private static final EmissorJwt EMISSOR = new EmissorJwt();
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private PacienteImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final int pacientes = inteiro("PACIENTES_CARGA_PACIENTES", 10_000);
+    private final int concorrencia = inteiro("PACIENTES_CARGA_CONCORRENCIA", 32);
+    private final Duration duracao = Duration.parse("PT" + texto("PACIENTES_CARGA_DURACAO", "30s"));
+    private final Duration aquecimento = Duration.parse("PT" + texto("PACIENTES_CARGA_AQUECIMENTO", "10s"));
+    private final Map<Operacao, Integer> mix =
+            Operacao.mix(texto("PACIENTES_CARGA_MIX", "id=50,lista=10,busca=10,criar=10,patch=15,remover=5"));
+
+    private final AtomicLong proximoCpf = new AtomicLong(50_000_000_000L);
+    private final ConcurrentLinkedQueue<Long> criados = new ConcurrentLinkedQueue<>();
+    private HttpClient http;
+    private long[] idsCadastrados;
+
+    @DynamicPropertySource
+    static void emissorJwt(DynamicPropertyRegistry registry) {
+        registry.add("spring.security.oauth2.resourceserver.jwt.issuer-uri", EMISSOR::issuer);
+        registry.add("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", EMISSOR::jwkSetUri);
+        registry.add("spring.threads.virtual.enabled", () -> texto("PACIENTES_CARGA_THREADS_VIRTUAIS", "false"));
+    }
+
+    @BeforeAll
+    void cadastrarPacientes() throws IOException {
+        Path csv = Files.createTempFile("carga-pacientes", ".csv");
+        try {
+            try (BufferedWriter saida = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                saida.write("cpf,nome,nome_mae,data_nascimento,cep,endereco,num_endereco,bairro,cidade,estado,"
+                        + "telefone_celular,email,sexo,num_cartao_sus,eh_tabagista,eh_etilista,tem_lesao_suspeita\n");
+                for (int i = 0; i < pacientes; i++) {
+                    saida.write("%011d,Paciente %d,Mae %d,%s,74000000,Rua %d,%d,Setor %d,Goiania,GO,62999990000,p%d@teste.com,%s,700%012d,%b,%b,%b\n"
+                            .formatted(10_000_000_000L + i, i, i, LocalDate.of(1950, 1, 1).plusDays(i % 20000), i % 300,
+                                    i % 2000, i % 50, i, i % 2 == 0 ? "Feminino" : "Masculino", i, i % 5 == 0,
+                                    i % 7 == 0, i % 11 == 0));
+                }
+            }
+            long inicio = System.nanoTime();
+            ResultadoImportacaoDTO resultado;
+            try (InputStream entrada = Files.newInputStream(csv)) {
+                resultado = importService.importarCsv(entrada);
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            log.info("Cadastro: {} pacientes importados em {} s ({} linhas/s)", resultado.inseridos(),
+                    "%.1f".formatted(segundos), Math.round(resultado.inseridos() / segundos));
+            assertEquals(pacientes, resultado.inseridos());
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+
+        idsCadastrados = jdbc.queryForList("SELECT id FROM pacientes", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @AfterAll
+    void pararEmissor() {
+        EMISSOR.parar();
+    }
+
+    @Test
+    @DisplayName("tráfego misto de leitura, escrita, patch e remoção na concorrência configurada")
+    void trafegoMisto() throws Exception {
+        log.info("Carga: {} clientes, mix {}, aquecimento {}, medição {}", concorrencia, mix, aquecimento, duracao);
+        executar(aquecimento);
+        Resultados resultados = executar(duracao);
+
+        log.info(resultados.relatorio(duracao));
+        assertEquals(0, resultados.erros(), "respostas inesperadas: " + resultados.errosPorStatus);
+        assertTrue(resultados.total() > 0);
+    }
+
+    private Resultados executar(Duration periodo) throws Exception {
+        long fim = System.nanoTime() + periodo.toNanos();
+        List<Future<Resultados>> clientes = new ArrayList<>(concorrencia);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concorrencia; i++) {
+                clientes.add(executor.submit(() -> cliente(fim)));
+            }
+            Resultados total = new Resultados();
+            for (Future<Resultados> cliente : clientes) {
+                total.somar(cliente.get());
+            }
+            return total;
+        }
+    }
+
+    private Resultados cliente(long fim) throws Exception {
+        Resultados resultados = new Resultados();
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        while (System.nanoTime() < fim) {
+            Operacao operacao = sortear(aleatorio);
+            HttpRequest requisicao = requisicao(operacao, aleatorio);
+            if (requisicao == null) {
+                continue;
+            }
+            long inicio = System.nanoTime();
+            HttpResponse<byte[]> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+            long latencia = System.nanoTime() - inicio;
+            boolean ok = resposta.statusCode() == operacao.statusEsperado;
+            resultados.registrar(operacao, latencia, ok ? 0 : resposta.statusCode());
+            if (ok && operacao == Operacao.CRIAR) {
+                JsonNode criado = objectMapper.readTree(resposta.body());
+                criados.add(criado.get("id").asLong());
+            }
+        }
+        return resultados;
+    }
+
+    private Operacao sortear(ThreadLocalRandom aleatorio) {
+        int sorteio = aleatorio.nextInt(mix.values().stream().mapToInt(Integer::intValue).sum());
+        for (Map.Entry<Operacao, Integer> peso : mix.entrySet()) {
+            sorteio -= peso.getValue();
+            if (sorteio < 0) {
+                return peso.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest requisicao(Operacao operacao, ThreadLocalRandom aleatorio) throws IOException {
+        // Leituras e patches usam os pacientes importados; só os criados durante a carga são removidos.
+        long id = idsCadastrados[aleatorio.nextInt(idsCadastrados.length)];
+        return switch (operacao) {
+            case ID -> get("/pacientes/" + id);
+            case LISTA -> get("/pacientes/resumo?tamanho=50");
+            case BUSCA -> get("/pacientes/search/resumo?estado=GO&temLesaoSuspeita=true&tamanho=50");
+            case CRIAR -> enviar("POST", "/pacientes", objectMapper.writeValueAsString(novoPaciente()));
+            case PATCH -> enviar("PATCH", "/pacientes/" + id, "{\"ehTabagista\":%b,\"ehEtilista\":%b,\"temLesaoSuspeita\":%b}"
+                    .formatted(aleatorio.nextBoolean(), aleatorio.nextBoolean(), aleatorio.nextBoolean()));
+            case REMOVER -> {
+                Long criado = criados.poll();
+                yield criado == null ? null : base("/pacientes/" + criado).DELETE().build();
+            }
+        };
+    }
+
+    private Map<String, Object> novoPaciente() {
+        long cpf = proximoCpf.getAndIncrement();
+        return Map.ofEntries(
+                Map.entry("cpf", Long.toString(cpf)), Map.entry("nome", "Paciente Carga " + cpf),
+                Map.entry("dataNascimento", "1980-05-10"), Map.entry("nomeMae", "Mae Carga"),
+                Map.entry("cep", "74000000"), Map.entry("endereco", "Rua Carga"), Map.entry("numEndereco", "1"),
+                Map.entry("complemento", ""), Map.entry("bairro", "Centro"), Map.entry("cidade", "Goiania"),
+                Map.entry("estado", "GO"), Map.entry("telefoneCelular", "62999990000"),
+                Map.entry("telefoneResponsavel", "62999990001"), Map.entry("email", "carga" + cpf + "@teste.com"),
+                Map.entry("sexo", "Feminino"), Map.entry("numCartaoSus", "700000000000000"),
+                Map.entry("ehTabagista", false), Map.entry("ehEtilista", false),
+                Map.entry("temLesaoSuspeita", false), Map.entry("participaSmartMonitor", true));
+    }
+
+    private HttpRequest get(String caminho) {
+        return base(caminho).GET().build();
+    }
+
+    private HttpRequest enviar(String metodo, String caminho, String json) {
+        return base(caminho)
+                .header("Content-Type", "application/json")
+                .method(metodo, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder base(String caminho) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + porta + caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + EMISSOR.token());
+    }
+
+    private static int inteiro(String variavel, int padrao) {
+        return Integer.parseInt(texto(variavel, Integer.toString(padrao)));
+    }
+
+    private static String texto(String variavel, String padrao) {
+        return Objects.requireNonNullElse(System.getenv(variavel), padrao);
+    }
+
+    private enum Operacao {
+        ID("GET /pacientes/{id}", 200),
+        LISTA("GET /pacientes/resumo", 200),
+        BUSCA("GET /pacientes/search/resumo", 200),
+        CRIAR("POST /pacientes", 201),
+        PATCH("PATCH /pacientes/{id}", 200),
+        REMOVER("DELETE /pacientes/{id}", 204);
+
+        private final String descricao;
+        private final int statusEsperado;
+
+        Operacao(String descricao, int statusEsperado) {
+            this.descricao = descricao;
+            this.statusEsperado = statusEsperado;
+        }
+
+        static Map<Operacao, Integer> mix(String especificacao) {
+            Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+            for (String item : especificacao.split(",")) {
+                String[] partes = item.trim().split("=");
+                int peso = Integer.parseInt(partes[1].trim());
+                if (peso > 0) {
+                    pesos.put(valueOf(partes[0].trim().toUpperCase()), peso);
+                }
+            }
+            if (pesos.isEmpty()) {
+                throw new IllegalArgumentException("PACIENTES_CARGA_MIX sem nenhuma operação: " + especificacao);
+            }
+            return pesos;
+        }
+    }
+
+    /**
+     * Latências (em nanossegundos) e erros por operação. Cada cliente tem o seu; são somados no fim.
+     */
+    private static class Resultados {
+
+        private final Map<Operacao, long[]> latencias = new EnumMap<>(Operacao.class);
+        private final Map<Operacao, Integer> quantidades = new EnumMap<>(Operacao.class);
+        private final Map<String, Integer> errosPorStatus = new TreeMap<>();
+
+        void registrar(Operacao operacao, long latencia, int statusErro) {
+            int quantidade = quantidades.getOrDefault(operacao, 0);
+            long[] valores = latencias.computeIfAbsent(operacao, o -> new long[1024]);
+            if (quantidade == valores.length) {
+                valores = Arrays.copyOf(valores, quantidade * 2);
+                latencias.put(operacao, valores);
+            }
+            valores[quantidade] = latencia;
+            quantidades.put(operacao, quantidade + 1);
+            if (statusErro != 0) {
+                errosPorStatus.merge(operacao.descricao + " -> " + statusErro, 1, Integer::sum);
+            }
+        }
+
+        void somar(Resultados outro) {
+            outro.quantidades.forEach((operacao, quantidade) -> {
+                long[] valores = outro.latencias.get(operacao);
+                for (int i = 0; i < quantidade; i++) {
+                    registrar(operacao, valores[i], 0);
+                }
+            });
+            outro.errosPorStatus.forEach((chave, erros) -> errosPorStatus.merge(chave, erros, Integer::sum));
+        }
+
+        long total() {
+            return quantidades.values().stream().mapToLong(Integer::longValue).sum();
+        }
+
+        long erros() {
+            return errosPorStatus.values().stream().mapToLong(Integer::longValue).sum();
+        }
+
+        String relatorio(Duration duracao) {
+            double segundos = duracao.toNanos() / 1e9;
+            StringBuilder relatorio = new StringBuilder("\n%-30s %9s %10s %9s %9s %9s %9s%n"
+                    .formatted("operação", "requisições", "req/s", "p50 ms", "p95 ms", "p99 ms", "máx ms"));
+            quantidades.forEach((operacao, quantidade) -> {
+                long[] ordenadas = Arrays.copyOf(latencias.get(operacao), quantidade);
+                Arrays.sort(ordenadas);
+                relatorio.append("%-30s %9d %10.1f %9.2f %9.2f %9.2f %9.2f%n".formatted(operacao.descricao, quantidade,
+                        quantidade / segundos, ms(ordenadas, 0.50), ms(ordenadas, 0.95), ms(ordenadas, 0.99),
+                        ordenadas[quantidade - 1] / 1e6));
+            });
+            relatorio.append("%-30s %9d %10.1f   erros: %d%n".formatted("total", total(), total() / segundos, erros()));
+            return relatorio.toString();
+        }
+
+        private static double ms(long[] ordenadas, double percentil) {
+            int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return ordenadas[Math.max(indice, 0)] / 1e6;
+        }
+    }
+
+    /**
+     * Faz o papel do Keycloak: publica um JWK set em um servidor HTTP local e assina os tokens da carga.
+     * O token é renovado antes de vencer, para que a carga passe pelo cache de tokens como em produção.
+     */
+    private static class EmissorJwt {
+
+        private final RSAKey chave;
+        private final HttpServer servidor;
+        private volatile String token;
+        private volatile Instant renovarEm = Instant.MIN;
+
+        EmissorJwt() {
+            try {
+                chave = new RSAKeyGenerator(2048).keyID("carga").generate();
+                servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            } catch (Exception e) {
+                throw new IllegalStateException("Falha ao iniciar o emissor de JWT da carga.", e);
+            }
+            byte[] jwks = new JWKSet(chave.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+            servidor.createContext("/certs", troca -> {
+                troca.getResponseHeaders().add("Content-Type", "application/json");
+                troca.sendResponseHeaders(200, jwks.length);
+                try (OutputStream saida = troca.getResponseBody()) {
+                    saida.write(jwks);
+                }
+            });
+            servidor.start();
+        }
+
+        String issuer() {
+            return "http://127.0.0.1:" + servidor.getAddress().getPort() + "/realms/carga";
+        }
+
+        String jwkSetUri() {
+            return "http://127.0.0.1:" + servidor.getAddress().getPort() + "/certs";
+        }
+
+        String token() {
+            if (Instant.now().isAfter(renovarEm)) {
+                synchronized (this) {
+                    if (Instant.now().isAfter(renovarEm)) {
+                        token = assinar(Instant.now().plus(Duration.ofMinutes(5)));
+                        renovarEm = Instant.now().plus(Duration.ofMinutes(4));
+                    }
+                }
+            }
+            return token;
+        }
+
+        void parar() {
+            servidor.stop(0);
+        }
+
+        private String assinar(Instant expiracao) {
+            try {
+                JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                        .subject("teste-de-carga")
+                        .issuer(issuer())
+                        .issueTime(new Date())
+                        .expirationTime(Date.from(expiracao))
+                        .claim("realm_access", Map.of("roles", List.of("USER", "ADMIN")))
+                        .build();
+                SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(chave.getKeyID()).build(),
+                        claims);
+                jwt.sign(new RSASSASigner(chave));
+                return jwt.serialize();
+            } catch (Exception e) {
+                throw new IllegalStateException("Falha ao assinar o token da carga.", e);
+            }
+        }
+    }
+}
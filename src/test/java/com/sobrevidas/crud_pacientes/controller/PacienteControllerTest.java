@@ -1,14 +1,32 @@
 package com.sobrevidas.crud_pacientes.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.sobrevidas.crud_pacientes.config.FormatosBinariosConfig;
+import com.sobrevidas.crud_pacientes.dto.AlteracoesPacienteDTO;
+import com.sobrevidas.crud_pacientes.dto.CursorPageResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.EventoPacienteDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteFiltroDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteLoteItemDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteLoteResponseDTO;
 import com.sobrevidas.crud_pacientes.dto.PacientePatchDTO;
 import com.sobrevidas.crud_pacientes.dto.PacienteRequestDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteRemovidoDTO;
 import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.SincronizacaoPacientesDTO;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
 import com.sobrevidas.crud_pacientes.exception.GlobalExceptionHandler;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.exception.PreconditionFailedException;
 import com.sobrevidas.crud_pacientes.exception.ResourceAlreadyExistsException;
 import com.sobrevidas.crud_pacientes.exception.ResourceNotFoundException;
 import com.sobrevidas.crud_pacientes.security.SecurityConfig;
+import com.sobrevidas.crud_pacientes.service.PacienteEventoService;
+import com.sobrevidas.crud_pacientes.service.PacienteExportService;
+import com.sobrevidas.crud_pacientes.service.PacienteLoteService;
 import com.sobrevidas.crud_pacientes.service.PacienteService;
+import com.sobrevidas.crud_pacientes.service.PacienteSincronizacaoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,11 +37,20 @@ import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -31,7 +58,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PacienteController.class)
-@ContextConfiguration(classes = {PacienteController.class, GlobalExceptionHandler.class, SecurityConfig.class})
+@ContextConfiguration(classes = {PacienteController.class, GlobalExceptionHandler.class, SecurityConfig.class,
+        FormatosBinariosConfig.class})
 class PacienteControllerTest {
 
     @Autowired
@@ -43,6 +71,18 @@ class PacienteControllerTest {
     @MockBean
     private PacienteService service;
 
+    @MockBean
+    private PacienteExportService exportService;
+
+    @MockBean
+    private PacienteLoteService loteService;
+
+    @MockBean
+    private PacienteEventoService eventoService;
+
+    @MockBean
+    private PacienteSincronizacaoService sincronizacaoService;
+
     private PacienteRequestDTO requestDTO;
     private PacienteResponseDTO responseDTO;
 
@@ -65,7 +105,8 @@ class PacienteControllerTest {
                 "Casa", "Bairro Teste", "Cidade Teste", "GO",
                 "62999999999", "62988888888", "teste@teste.com",
                 "Masculino", "987654321",
-                false, false, false, false
+                false, false, false, false, 3L,
+                Instant.parse("2024-01-10T08:00:00Z"), Instant.parse("2024-05-01T12:00:00Z")
         );
     }
 
@@ -119,28 +160,295 @@ class PacienteControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    @DisplayName("POST /pacientes/batch - Deve retornar 200 OK com o resultado de cada item (requer ROLE_USER)")
+    void salvarPacientesEmLote_DeveRetornar200OK() throws Exception {
+        when(loteService.salvarPacientes(anyList())).thenReturn(new PacienteLoteResponseDTO(1, 0, 1, List.of(
+                new PacienteLoteItemDTO(0, "12345678901", "CRIADO", 1L, null),
+                new PacienteLoteItemDTO(1, "123", "REJEITADO", null, Map.of("cpf", "CPF deve ter 11 dígitos")))));
+
+        mockMvc.perform(post("/pacientes/batch")
+                        .with(jwt().authorities(getUserRole()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(requestDTO, requestDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.criados", is(1)))
+                .andExpect(jsonPath("$.itens[0].id", is(1)))
+                .andExpect(jsonPath("$.itens[1].status", is("REJEITADO")))
+                .andExpect(jsonPath("$.itens[1].erros.cpf", is("CPF deve ter 11 dígitos")));
+    }
+
+    @Test
+    @DisplayName("POST /pacientes/batch - Deve retornar 400 Bad Request para lote vazio (requer ROLE_USER)")
+    void salvarPacientesEmLote_DeveRetornar400_QuandoLoteVazio() throws Exception {
+        when(loteService.salvarPacientes(anyList()))
+                .thenThrow(new InvalidRequestException("O lote deve conter ao menos um paciente."));
+
+        mockMvc.perform(post("/pacientes/batch")
+                        .with(jwt().authorities(getUserRole()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /pacientes - Deve retornar 200 OK (requer ROLE_USER)")
-    void listarTodosPacientes_DeveRetornar200OK_QuandoExistemPacientes() throws Exception {
-        when(service.listarTodosPacientes()).thenReturn(List.of(responseDTO));
+    void listarPacientes_DeveRetornar200OK_QuandoExistemPacientes() throws Exception {
+        when(service.listarPacientes(null, null))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(responseDTO), "MQ", 1));
+
+        mockMvc.perform(get("/pacientes")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[0].id", is(1)))
+                .andExpect(jsonPath("$.proximoCursor", is("MQ")))
+                .andExpect(jsonPath("$.tamanhoPagina", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes - Deve retornar 304 quando a página não mudou desde a ETag enviada (requer ROLE_USER)")
+    void listarPacientes_DeveRetornar304_QuandoPaginaNaoMudou() throws Exception {
+        when(service.listarPacientes(null, null))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(responseDTO), "MQ", 1));
+
+        String etag = mockMvc.perform(get("/pacientes")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/pacientes")
+                        .with(jwt().authorities(getUserRole()))
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes - Deve responder em CBOR quando pedido no Accept, com ETag fraca e Vary: Accept")
+    void listarPacientes_DeveRetornarCbor_QuandoAcceptCbor() throws Exception {
+        when(service.listarPacientes(null, null))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(responseDTO), "MQ", 1));
+
+        byte[] corpo = mockMvc.perform(get("/pacientes")
+                        .with(jwt().authorities(getUserRole()))
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andExpect(header().string("ETag", startsWith("W/\"")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode pagina = new ObjectMapper(new CBORFactory()).readTree(corpo);
+        assertEquals(1, pagina.at("/conteudo/0/id").asLong());
+        assertEquals("2024-05-01T12:00:00Z", pagina.at("/conteudo/0/atualizadoEm").asText());
+        assertEquals("MQ", pagina.get("proximoCursor").asText());
+    }
+
+    @Test
+    @DisplayName("GET /pacientes - Deve retornar página vazia (requer ROLE_USER)")
+    void listarPacientes_DeveRetornarPaginaVazia_QuandoNaoHaPacientes() throws Exception {
+        when(service.listarPacientes(null, null))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(), null, 0));
 
         mockMvc.perform(get("/pacientes")
                         .with(jwt().authorities(getUserRole())))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id", is(1)));
+                .andExpect(content().json("{\"conteudo\": [], \"proximoCursor\": null, \"tamanhoPagina\": 0}"));
     }
 
     @Test
-    @DisplayName("GET /pacientes - Deve retornar lista vazia (requer ROLE_USER)")
-    void listarTodosPacientes_DeveRetornarListaVazia_QuandoNaoHaPacientes() throws Exception {
-        when(service.listarTodosPacientes()).thenReturn(List.of());
+    @DisplayName("GET /pacientes?cursor= - Deve repassar cursor e tamanho ao serviço (requer ROLE_USER)")
+    void listarPacientes_DeveRepassarCursorETamanho() throws Exception {
+        when(service.listarPacientes("MQ", 10))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(responseDTO), null, 1));
 
         mockMvc.perform(get("/pacientes")
+                        .param("cursor", "MQ")
+                        .param("tamanho", "10")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[0].id", is(1)));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes - Deve retornar 400 Bad Request para cursor inválido (requer ROLE_USER)")
+    void listarPacientes_DeveRetornar400BadRequest_QuandoCursorInvalido() throws Exception {
+        when(service.listarPacientes("invalido", null))
+                .thenThrow(new InvalidRequestException("Cursor de paginação inválido."));
+
+        mockMvc.perform(get("/pacientes")
+                        .param("cursor", "invalido")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isBadRequest());
+    }
+
+
+    @Test
+    @DisplayName("GET /pacientes/search - Deve repassar os filtros ao serviço (requer ROLE_USER)")
+    void buscarPacientes_DeveRepassarFiltros() throws Exception {
+        PacienteFiltroDTO filtro = new PacienteFiltroDTO("Goiânia", null, "GO", null, null, true, 40, 70);
+        when(service.buscarPacientes(filtro, "abc", 20))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(responseDTO), null, 1));
+
+        mockMvc.perform(get("/pacientes/search")
+                        .param("cidade", "Goiânia")
+                        .param("estado", "GO")
+                        .param("temLesaoSuspeita", "true")
+                        .param("idadeMinima", "40")
+                        .param("idadeMaxima", "70")
+                        .param("cursor", "abc")
+                        .param("tamanho", "20")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[0].cpf", is("12345678901")));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/search - Deve retornar 400 Bad Request para idade negativa (requer ROLE_USER)")
+    void buscarPacientes_DeveRetornar400_QuandoIdadeNegativa() throws Exception {
+        mockMvc.perform(get("/pacientes/search")
+                        .param("idadeMinima", "-1")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.idadeMinima", is("A idade mínima não pode ser negativa")));
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/search - Deve retornar 400 Bad Request para idade acima de 150 anos (requer ROLE_USER)")
+    void buscarPacientes_DeveRetornar400_QuandoIdadeAbsurda() throws Exception {
+        mockMvc.perform(get("/pacientes/search")
+                        .param("idadeMaxima", "999999999")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.idadeMaxima", is("A idade máxima não pode ser maior que 150")));
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/search/nome - Deve retornar 200 OK com os pacientes semelhantes (requer ROLE_USER)")
+    void buscarPorNome_DeveRetornar200OK() throws Exception {
+        when(service.buscarPorNome("joao", null)).thenReturn(List.of(responseDTO));
+
+        mockMvc.perform(get("/pacientes/search/nome")
+                        .param("q", "joao")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nome", is("Paciente Teste")));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/export - Deve transmitir NDJSON (requer ROLE_USER)")
+    void exportarPacientes_DeveTransmitirNdjson() throws Exception {
+        // Segura a escrita até o primeiro perform terminar: o MockMvc lê os cabeçalhos da resposta ao final dele.
+        CountDownLatch liberarEscrita = new CountDownLatch(1);
+        when(exportService.exportarNdjson(any(OutputStream.class))).thenAnswer(invocation -> {
+            liberarEscrita.await();
+            OutputStream out = invocation.getArgument(0);
+            out.write((objectMapper.writeValueAsString(responseDTO) + "\n").getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/pacientes/export")
                         .with(jwt().authorities(getUserRole())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        liberarEscrita.countDown();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(content().json("[]"));
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(responseDTO) + "\n"));
     }
 
+    @Test
+    @DisplayName("GET /pacientes/export - Deve transmitir sequência CBOR quando pedida no Accept (requer ROLE_USER)")
+    void exportarPacientes_DeveTransmitirCbor_QuandoAcceptCborSeq() throws Exception {
+        when(exportService.exportarCbor(any(OutputStream.class))).thenReturn(0L);
+
+        MvcResult result = mockMvc.perform(get("/pacientes/export")
+                        .with(jwt().authorities(getUserRole()))
+                        .header("Accept", "application/cbor-seq, application/x-ndjson;q=0.5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor-seq"));
+        verify(exportService).exportarCbor(any(OutputStream.class));
+        verify(exportService, never()).exportarNdjson(any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/export - Deve retornar 401 sem autenticação")
+    void exportarPacientes_DeveRetornar401_QuandoNaoAutenticado() throws Exception {
+        mockMvc.perform(get("/pacientes/export"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/changes - Deve retornar as alterações desde a posição informada (requer ROLE_USER)")
+    void listarAlteracoes_DeveRetornar200OK() throws Exception {
+        EventoPacienteDTO evento = new EventoPacienteDTO(
+                11L, 1L, TipoEventoPaciente.ATUALIZADO, 4L, Instant.parse("2024-05-01T12:00:00Z"));
+        when(eventoService.listarAlteracoes(10L, 2))
+                .thenReturn(new AlteracoesPacienteDTO(List.of(evento), 11L, false));
+
+        mockMvc.perform(get("/pacientes/changes")
+                        .param("since", "10")
+                        .param("tamanho", "2")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alteracoes[0].posicao", is(11)))
+                .andExpect(jsonPath("$.alteracoes[0].tipo", is("ATUALIZADO")))
+                .andExpect(jsonPath("$.proximoSince", is(11)))
+                .andExpect(jsonPath("$.temMais", is(false)));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/changes - Deve retornar 400 Bad Request quando a posição é inválida")
+    void listarAlteracoes_DeveRetornar400_QuandoSinceInvalido() throws Exception {
+        when(eventoService.listarAlteracoes(-1L, null))
+                .thenThrow(new InvalidRequestException("O parâmetro 'since' não pode ser negativo."));
+
+        mockMvc.perform(get("/pacientes/changes")
+                        .param("since", "-1")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/sync - Deve retornar alterados, removidos e a próxima marca (requer ROLE_USER)")
+    void sincronizar_DeveRetornar200OK() throws Exception {
+        when(sincronizacaoService.sincronizar("marca-anterior", null)).thenReturn(new SincronizacaoPacientesDTO(
+                List.of(responseDTO),
+                List.of(new PacienteRemovidoDTO(9L, Instant.parse("2024-05-01T12:30:00Z"))),
+                "proxima-marca", false));
+
+        mockMvc.perform(get("/pacientes/sync")
+                        .param("since", "marca-anterior")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alterados[0].id", is(1)))
+                .andExpect(jsonPath("$.alterados[0].atualizadoEm", is("2024-05-01T12:00:00Z")))
+                .andExpect(jsonPath("$.removidos[0].id", is(9)))
+                .andExpect(jsonPath("$.proximoSince", is("proxima-marca")))
+                .andExpect(jsonPath("$.temMais", is(false)));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/sync - Deve retornar 400 Bad Request quando a marca é inválida")
+    void sincronizar_DeveRetornar400_QuandoMarcaInvalida() throws Exception {
+        when(sincronizacaoService.sincronizar("invalida", null))
+                .thenThrow(new InvalidRequestException("Marca de sincronização inválida."));
+
+        mockMvc.perform(get("/pacientes/sync")
+                        .param("since", "invalida")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isBadRequest());
+    }
 
     @Test
     @DisplayName("GET /pacientes/{id} - Deve retornar 200 OK (requer ROLE_USER)")
@@ -150,7 +458,37 @@ class PacienteControllerTest {
         mockMvc.perform(get("/pacientes/1")
                         .with(jwt().authorities(getUserRole())))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id", is(1)));
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.versao", is(3)));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/{id} - Deve retornar 304 sem corpo e sem buscar o paciente quando a ETag confere")
+    void buscarPacientePorId_DeveRetornar304_QuandoIfNoneMatchConfere() throws Exception {
+        when(service.buscarVersaoPacientePorId(1L)).thenReturn(3L);
+
+        mockMvc.perform(get("/pacientes/1")
+                        .with(jwt().authorities(getUserRole()))
+                        .header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(service, never()).buscarPacientePorId(anyLong());
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/{id} - Deve retornar 200 com a versão nova quando a ETag enviada é antiga")
+    void buscarPacientePorId_DeveRetornar200_QuandoIfNoneMatchDiverge() throws Exception {
+        when(service.buscarVersaoPacientePorId(1L)).thenReturn(3L);
+        when(service.buscarPacientePorId(1L)).thenReturn(responseDTO);
+
+        mockMvc.perform(get("/pacientes/1")
+                        .with(jwt().authorities(getUserRole()))
+                        .header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
     }
 
     @Test
@@ -164,10 +502,41 @@ class PacienteControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /pacientes/cpf/{cpf} - Deve retornar 200 OK e 404 quando o CPF não existe (requer ROLE_USER)")
+    void buscarPacientePorCpf_DeveRetornar200OuNotFound() throws Exception {
+        when(service.buscarPacientePorCpf("12345678901")).thenReturn(responseDTO);
+        when(service.buscarPacientePorCpf("99999999999"))
+                .thenThrow(new ResourceNotFoundException("Paciente não encontrado com CPF: 99999999999"));
+
+        mockMvc.perform(get("/pacientes/cpf/12345678901")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+        mockMvc.perform(get("/pacientes/cpf/99999999999")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("HEAD /pacientes/cpf/{cpf} - Deve responder só com o status, sem buscar o paciente (requer ROLE_USER)")
+    void verificarCpf_DeveRetornar200OuNotFound() throws Exception {
+        when(service.existePacienteComCpf("12345678901")).thenReturn(true);
+        when(service.existePacienteComCpf("99999999999")).thenReturn(false);
+
+        mockMvc.perform(head("/pacientes/cpf/12345678901")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isOk());
+        mockMvc.perform(head("/pacientes/cpf/99999999999")
+                        .with(jwt().authorities(getUserRole())))
+                .andExpect(status().isNotFound());
+        verify(service, never()).buscarPacientePorCpf(anyString());
+    }
+
     @Test
     @DisplayName("PUT /pacientes/{id} - Deve retornar 200 OK (requer ROLE_USER)")
     void atualizarPaciente_DeveRetornar200OK_QuandoAtualizacaoValida() throws Exception {
-        when(service.atualizarPaciente(eq(1L), any(PacienteRequestDTO.class))).thenReturn(responseDTO);
+        when(service.atualizarPaciente(eq(1L), any(PacienteRequestDTO.class), isNull())).thenReturn(responseDTO);
 
         mockMvc.perform(put("/pacientes/1")
                         .with(jwt().authorities(getUserRole()))
@@ -177,10 +546,68 @@ class PacienteControllerTest {
                 .andExpect(jsonPath("$.id", is(1)));
     }
 
+    @Test
+    @DisplayName("PUT /pacientes/{id} - Deve repassar a versão de If-Match e devolver a nova ETag (requer ROLE_USER)")
+    void atualizarPaciente_DeveRepassarIfMatch() throws Exception {
+        when(service.atualizarPaciente(eq(1L), any(PacienteRequestDTO.class), eq(2L))).thenReturn(responseDTO);
+
+        mockMvc.perform(put("/pacientes/1")
+                        .with(jwt().authorities(getUserRole()))
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    @DisplayName("PUT /pacientes/{id} - Deve aceitar If-Match com lista de ETags quando uma delas é a versão atual (requer ROLE_USER)")
+    void atualizarPaciente_DeveAceitarIfMatchComLista() throws Exception {
+        when(service.buscarVersaoPacientePorId(1L)).thenReturn(4L);
+        when(service.atualizarPaciente(eq(1L), any(PacienteRequestDTO.class), eq(4L))).thenReturn(responseDTO);
+
+        mockMvc.perform(put("/pacientes/1")
+                        .with(jwt().authorities(getUserRole()))
+                        .header("If-Match", "\"3\", \"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    @DisplayName("PATCH /pacientes/{id} - Deve retornar 412 quando nenhuma ETag da lista em If-Match é a versão atual (requer ROLE_USER)")
+    void atualizarPacienteParcial_DeveRetornar412_QuandoListaIfMatchNaoConfere() throws Exception {
+        when(service.buscarVersaoPacientePorId(1L)).thenReturn(5L);
+        when(service.atualizarPacienteParcial(eq(1L), any(PacientePatchDTO.class), eq(-1L)))
+                .thenThrow(new PreconditionFailedException("O paciente foi alterado desde a versão informada em If-Match."));
+
+        mockMvc.perform(patch("/pacientes/1")
+                        .with(jwt().authorities(getUserRole()))
+                        .header("If-Match", "\"3\", W/\"5\", \"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PacientePatchDTO(true, false, true))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("PUT /pacientes/{id} - Deve retornar 412 quando If-Match não confere com a versão atual (requer ROLE_USER)")
+    void atualizarPaciente_DeveRetornar412_QuandoIfMatchDiverge() throws Exception {
+        when(service.atualizarPaciente(eq(1L), any(PacienteRequestDTO.class), eq(-1L)))
+                .thenThrow(new PreconditionFailedException("O paciente foi alterado desde a versão informada em If-Match."));
+
+        mockMvc.perform(put("/pacientes/1")
+                        .with(jwt().authorities(getUserRole()))
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("PUT /pacientes/{id} - Deve retornar 404 Not Found (requer ROLE_USER)")
     void atualizarPaciente_DeveRetornar404NotFound_QuandoPacienteNaoExiste() throws Exception {
-        when(service.atualizarPaciente(eq(99L), any(PacienteRequestDTO.class)))
+        when(service.atualizarPaciente(eq(99L), any(PacienteRequestDTO.class), isNull()))
                 .thenThrow(new ResourceNotFoundException("Paciente não encontrado com id: 99"));
 
         mockMvc.perform(put("/pacientes/99")
@@ -193,7 +620,7 @@ class PacienteControllerTest {
     @Test
     @DisplayName("PUT /pacientes/{id} - Deve retornar 409 Conflict (requer ROLE_USER)")
     void atualizarPaciente_DeveRetornar409Conflict_QuandoCpfDuplicado() throws Exception {
-        when(service.atualizarPaciente(eq(1L), any(PacienteRequestDTO.class)))
+        when(service.atualizarPaciente(eq(1L), any(PacienteRequestDTO.class), isNull()))
                 .thenThrow(new ResourceAlreadyExistsException("CPF já cadastrado para outro paciente."));
 
         mockMvc.perform(put("/pacientes/1")
@@ -212,9 +639,9 @@ class PacienteControllerTest {
                 1L, "12345678901", "Nome", LocalDate.now(), "Mae", "cep", "rua",
                 "1", null, "bairro", "cidade", "go",
                 null, null, null, null, null,
-                true, false, true, false);
+                true, false, true, false, 4L, responseDTO.criadoEm(), Instant.parse("2024-05-02T09:30:00Z"));
 
-        when(service.atualizarPacienteParcial(eq(1L), any(PacientePatchDTO.class)))
+        when(service.atualizarPacienteParcial(eq(1L), any(PacientePatchDTO.class), isNull()))
                 .thenReturn(atualizado);
 
         mockMvc.perform(patch("/pacientes/1")
@@ -241,7 +668,7 @@ class PacienteControllerTest {
     @DisplayName("PATCH /pacientes/{id} - Deve retornar 404 Not Found (requer ROLE_USER)")
     void atualizarPacienteParcial_DeveRetornar404NotFound_QuandoPacienteNaoExiste() throws Exception {
 
-        when(service.atualizarPacienteParcial(eq(99L), any(PacientePatchDTO.class)))
+        when(service.atualizarPacienteParcial(eq(99L), any(PacientePatchDTO.class), isNull()))
                 .thenThrow(new ResourceNotFoundException("Paciente não encontrado com id: 99"));
 
         PacientePatchDTO patchDTO = new PacientePatchDTO(false, false, false);
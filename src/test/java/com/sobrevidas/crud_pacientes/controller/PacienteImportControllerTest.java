@@ -0,0 +1,122 @@
+package com.sobrevidas.crud_pacientes.controller;
+
+import com.sobrevidas.crud_pacientes.dto.ImportacaoRejeicaoDTO;
+import com.sobrevidas.crud_pacientes.dto.ImportacaoStatusDTO;
+import com.sobrevidas.crud_pacientes.exception.GlobalExceptionHandler;
+import com.sobrevidas.crud_pacientes.exception.ResourceNotFoundException;
+import com.sobrevidas.crud_pacientes.security.SecurityConfig;
+import com.sobrevidas.crud_pacientes.service.ImportacaoJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PacienteImportController.class)
+@ContextConfiguration(classes = {PacienteImportController.class, GlobalExceptionHandler.class, SecurityConfig.class})
+class PacienteImportControllerTest {
+
+    private static final UUID ID = UUID.fromString("3f1c9a52-4b1e-4f5e-9a0e-0c1d2e3f4a5b");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportacaoJobService service;
+
+    private final MockMultipartFile arquivo = new MockMultipartFile(
+            "arquivo", "pacientes.csv", "text/csv", "cpf,nome\n".getBytes());
+
+    private ImportacaoStatusDTO statusDTO(String situacao) {
+        return new ImportacaoStatusDTO(ID, situacao, "pacientes.csv", 0, 0, 0.0, 0.0,
+                null, null, Instant.now(), null, null);
+    }
+
+    @Test
+    @DisplayName("POST /pacientes/imports - Deve retornar 202 Accepted (requer ROLE_ADMIN)")
+    void iniciarImportacao_DeveRetornar202Accepted() throws Exception {
+        when(service.iniciar(any(MultipartFile.class))).thenReturn(statusDTO("PENDENTE"));
+
+        mockMvc.perform(multipart("/pacientes/imports")
+                        .file(arquivo)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/pacientes/imports/" + ID))
+                .andExpect(jsonPath("$.status", is("PENDENTE")));
+    }
+
+    @Test
+    @DisplayName("POST /pacientes/imports - Deve retornar 403 Forbidden para ROLE_USER")
+    void iniciarImportacao_DeveRetornar403Forbidden_QuandoNaoAdmin() throws Exception {
+        mockMvc.perform(multipart("/pacientes/imports")
+                        .file(arquivo)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER"))))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("POST /pacientes/imports - Deve retornar 503 quando o limite de importações foi atingido")
+    void iniciarImportacao_DeveRetornar503_QuandoFilaCheia() throws Exception {
+        when(service.iniciar(any(MultipartFile.class)))
+                .thenThrow(new TaskRejectedException("Limite de importações simultâneas atingido."));
+
+        mockMvc.perform(multipart("/pacientes/imports")
+                        .file(arquivo)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/imports/{id} - Deve retornar 200 OK com o progresso (requer ROLE_ADMIN)")
+    void buscarStatusImportacao_DeveRetornar200OK() throws Exception {
+        when(service.buscarStatus(ID)).thenReturn(statusDTO("EM_ANDAMENTO"));
+
+        mockMvc.perform(get("/pacientes/imports/" + ID)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("EM_ANDAMENTO")));
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/imports/{id} - Deve retornar 404 Not Found (requer ROLE_ADMIN)")
+    void buscarStatusImportacao_DeveRetornar404NotFound() throws Exception {
+        when(service.buscarStatus(ID)).thenThrow(new ResourceNotFoundException("Importação não encontrada com id: " + ID));
+
+        mockMvc.perform(get("/pacientes/imports/" + ID)
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/imports/{id}/rejeicoes - Deve retornar 200 OK com as linhas rejeitadas (requer ROLE_ADMIN)")
+    void listarRejeicoes_DeveRetornar200OK() throws Exception {
+        when(service.listarRejeicoes(ID, 1000)).thenReturn(List.of(
+                new ImportacaoRejeicaoDTO(3, "IllegalArgumentException: CPF deve ter 11 dígitos numéricos: '123'", "123,Ana,1990-01-01")));
+
+        mockMvc.perform(get("/pacientes/imports/" + ID + "/rejeicoes")
+                        .param("limite", "5000")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_ADMIN"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].linha", is(3)))
+                .andExpect(jsonPath("$[0].conteudo", is("123,Ana,1990-01-01")));
+    }
+}
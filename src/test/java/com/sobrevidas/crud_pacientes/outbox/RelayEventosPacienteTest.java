@@ -0,0 +1,242 @@
+package com.sobrevidas.crud_pacientes.outbox;
+
+import com.sobrevidas.crud_pacientes.PacienteJpaTest;
+import com.sobrevidas.crud_pacientes.dto.AlteracoesPacienteDTO;
+import com.sobrevidas.crud_pacientes.dto.EventoPacienteDTO;
+import com.sobrevidas.crud_pacientes.dto.PacientePatchDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.entity.PacienteEvento;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import com.sobrevidas.crud_pacientes.exception.ResourceAlreadyExistsException;
+import com.sobrevidas.crud_pacientes.repository.CursorPublicacaoRepository;
+import com.sobrevidas.crud_pacientes.repository.PacienteEventoRepository;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import com.sobrevidas.crud_pacientes.service.PacienteEventoService;
+import com.sobrevidas.crud_pacientes.service.PacienteService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.sobrevidas.crud_pacientes.PacientesTeste.paciente;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roda as escritas do {@link PacienteService} e o {@link RelayEventosPaciente} contra um banco H2 em memória. O
+ * relay é chamado diretamente pelo teste; o intervalo longo só evita que o agendamento dispute os mesmos eventos.
+ */
+@PacienteJpaTest
+@TestPropertySource(properties = {
+        "pacientes.eventos.relay.intervalo=1h",
+        "pacientes.eventos.relay.tamanho-lote=2"
+})
+@Import({RelayEventosPaciente.class, DestinoEventosPacienteLocal.class, RelayEventosPacienteTest.Destinos.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class RelayEventosPacienteTest {
+
+    @Autowired
+    private PacienteService service;
+
+    @Autowired
+    private PacienteEventoService eventoService;
+
+    @Autowired
+    private RelayEventosPaciente relay;
+
+    @Autowired
+    private DestinoCaptura destino;
+
+    @Autowired
+    private ApplicationEvents eventosAplicacao;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private PacienteEventoRepository eventoRepository;
+
+    @Autowired
+    private CursorPublicacaoRepository cursorRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        eventoRepository.deleteAllInBatch();
+        cursorRepository.deleteAllInBatch();
+        pacienteRepository.deleteAllInBatch();
+        destino.recebidos.clear();
+        destino.falhar = false;
+    }
+
+    @Test
+    @DisplayName("cada escrita grava um evento, e o relay os publica em lotes numerados na ordem de gravação")
+    void publicarLote_PublicaEmOrdemNosDestinos() {
+        PacienteResponseDTO ana = service.salvarPaciente(paciente("11111111111", "Ana"));
+        PacienteResponseDTO bruno = service.salvarPaciente(paciente("22222222222", "Bruno"));
+        PacienteResponseDTO anaAtualizada = service.atualizarPacienteParcial(
+                ana.id(), new PacientePatchDTO(true, false, false), null);
+        service.removerPaciente(bruno.id());
+
+        assertEquals(4, eventoRepository.count());
+        assertEquals(0, destino.recebidos.size(), "nada é publicado antes do relay rodar");
+
+        relay.publicarPendentes();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), destino.recebidos.stream().map(EventoPacienteDTO::posicao).toList());
+        assertEquals(List.of(TipoEventoPaciente.CRIADO, TipoEventoPaciente.CRIADO, TipoEventoPaciente.ATUALIZADO,
+                TipoEventoPaciente.REMOVIDO), destino.recebidos.stream().map(EventoPacienteDTO::tipo).toList());
+        assertEquals(List.of(ana.id(), bruno.id(), ana.id(), bruno.id()),
+                destino.recebidos.stream().map(EventoPacienteDTO::pacienteId).toList());
+        assertEquals(anaAtualizada.versao(), destino.recebidos.get(2).versao());
+        assertNull(destino.recebidos.get(3).versao());
+        assertEquals(4, eventosAplicacao.stream(EventosPacientePublicados.class)
+                .mapToLong(publicados -> publicados.eventos().size()).sum(), "o destino local recebe os mesmos lotes");
+        assertEquals(0, relay.publicarLote());
+    }
+
+    @Test
+    @DisplayName("uma escrita recusada não grava evento")
+    void salvarPaciente_Recusado_NaoGravaEvento() {
+        service.salvarPaciente(paciente("11111111111", "Ana"));
+
+        assertThrows(ResourceAlreadyExistsException.class,
+                () -> service.salvarPaciente(paciente("11111111111", "Ana de Novo")));
+
+        assertEquals(1, eventoRepository.count());
+    }
+
+    @Test
+    @DisplayName("se um destino falha, o lote volta a ficar pendente e é publicado com as mesmas posições depois")
+    void publicarLote_DestinoFalha_RepublicaMesmoLote() {
+        service.salvarPaciente(paciente("11111111111", "Ana"));
+        destino.falhar = true;
+
+        assertThrows(IllegalStateException.class, () -> relay.publicarLote());
+        assertEquals(0, eventoService.listarAlteracoes(null, null).alteracoes().size());
+
+        destino.falhar = false;
+        assertEquals(1, relay.publicarLote());
+        assertEquals(1L, destino.recebidos.getFirst().posicao());
+    }
+
+    @Test
+    @DisplayName("escritas intercaladas de duas réplicas sobre o mesmo paciente são publicadas na ordem em que ocorreram")
+    void publicarLote_DuasReplicasIntercaladas_PublicaNaOrdemDasEscritas() {
+        EntityManagerFactory outraReplica = outraReplica();
+        try {
+            PacienteResponseDTO ana = service.salvarPaciente(paciente("11111111111", "Ana"));
+            // A outra réplica, com o seu próprio gerador de ids, atualiza a paciente; só depois esta a remove.
+            atualizarNaOutraReplica(outraReplica, ana.id());
+            service.removerPaciente(ana.id());
+
+            relay.publicarPendentes();
+
+            assertEquals(List.of(TipoEventoPaciente.CRIADO, TipoEventoPaciente.ATUALIZADO, TipoEventoPaciente.REMOVIDO),
+                    destino.recebidos.stream().map(EventoPacienteDTO::tipo).toList());
+        } finally {
+            outraReplica.close();
+        }
+    }
+
+    @Test
+    @DisplayName("GET /pacientes/changes pagina pelo 'since' só entre os eventos já publicados")
+    void listarAlteracoes_PaginaPorSince() {
+        for (int i = 1; i <= 3; i++) {
+            service.salvarPaciente(paciente("0000000000" + i, "Paciente " + i));
+        }
+        relay.publicarPendentes();
+        service.salvarPaciente(paciente("00000000009", "Ainda Pendente"));
+
+        AlteracoesPacienteDTO primeira = eventoService.listarAlteracoes(null, 2);
+        AlteracoesPacienteDTO segunda = eventoService.listarAlteracoes(primeira.proximoSince(), 2);
+        AlteracoesPacienteDTO vazia = eventoService.listarAlteracoes(segunda.proximoSince(), 2);
+
+        assertEquals(List.of(1L, 2L), primeira.alteracoes().stream().map(EventoPacienteDTO::posicao).toList());
+        assertTrue(primeira.temMais());
+        assertEquals(List.of(3L), segunda.alteracoes().stream().map(EventoPacienteDTO::posicao).toList());
+        assertFalse(segunda.temMais());
+        assertTrue(vazia.alteracoes().isEmpty());
+        assertEquals(3L, vazia.proximoSince());
+    }
+
+    // Outra instância da aplicação sobre o mesmo banco: um EntityManagerFactory separado, com os seus geradores.
+    private EntityManagerFactory outraReplica() {
+        LocalContainerEntityManagerFactoryBean fabrica = new LocalContainerEntityManagerFactoryBean();
+        fabrica.setDataSource(dataSource);
+        fabrica.setPackagesToScan(Paciente.class.getPackageName());
+        fabrica.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        fabrica.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "none",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()));
+        fabrica.afterPropertiesSet();
+        return fabrica.getObject();
+    }
+
+    // O mesmo que PacienteService.atualizarPacienteParcial faz: grava o paciente e o evento na mesma transação.
+    private static void atualizarNaOutraReplica(EntityManagerFactory replica, Long id) {
+        EntityManager em = replica.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Paciente paciente = em.find(Paciente.class, id);
+            paciente.setEhTabagista(true);
+            em.flush();
+            em.persist(PacienteEvento.builder()
+                    .pacienteId(id)
+                    .tipo(TipoEventoPaciente.ATUALIZADO)
+                    .versao(paciente.getVersao())
+                    .ocorridoEm(Instant.now())
+                    .build());
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    static class DestinoCaptura implements DestinoEventosPaciente {
+
+        final List<EventoPacienteDTO> recebidos = new CopyOnWriteArrayList<>();
+        volatile boolean falhar;
+
+        @Override
+        public void publicar(List<EventoPacienteDTO> eventos) {
+            if (falhar) {
+                throw new IllegalStateException("destino indisponível");
+            }
+            recebidos.addAll(eventos);
+        }
+    }
+
+    @TestConfiguration
+    static class Destinos {
+
+        @Bean
+        DestinoCaptura destinoCaptura() {
+            return new DestinoCaptura();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.sobrevidas.crud_pacientes.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roda contra um endpoint de JWK set local no lugar do Keycloak, com tokens assinados pelo próprio teste.
+ */
+class JwtAuthenticationManagerComCacheTest {
+
+    private static final String ISSUER = "http://localhost/realms/sobrevidas";
+
+    private HttpServer servidor;
+    private final List<RSAKey> chavesPublicadas = new CopyOnWriteArrayList<>();
+    private final AtomicInteger buscasJwkSet = new AtomicInteger();
+    private final AtomicInteger verificacoes = new AtomicInteger();
+    private final AtomicLong relogio = new AtomicLong();
+    private RSAKey chave;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        chave = new RSAKeyGenerator(2048).keyID("chave-1").generate();
+        chavesPublicadas.add(chave);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/certs", troca -> {
+            buscasJwkSet.incrementAndGet();
+            byte[] corpo = new JWKSet(List.copyOf(chavesPublicadas)).toString().getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().add("Content-Type", "application/json");
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    @DisplayName("o mesmo token é verificado uma vez só, mas cada requisição recebe uma autenticação nova")
+    void authenticate_TokenRepetido_VerificaUmaVez() throws Exception {
+        JwtAuthenticationManagerComCache manager = manager(Duration.ofSeconds(30));
+        String token = token(chave, Instant.now().plusSeconds(300), "USER");
+
+        Authentication primeira = manager.authenticate(bearer(token, "req-1"));
+        Authentication segunda = manager.authenticate(bearer(token, "req-2"));
+        manager.authenticate(bearer(token, "req-3"));
+
+        assertEquals(1, verificacoes.get());
+        assertEquals(1, buscasJwkSet.get());
+        assertNotSame(primeira, segunda);
+        assertEquals("req-2", segunda.getDetails());
+        assertEquals("paciente-app", segunda.getName());
+        assertEquals(List.of("ROLE_USER"), segunda.getAuthorities().stream().map(Object::toString).toList());
+    }
+
+    @Test
+    @DisplayName("a entrada do cache vence junto com o token, e o token volta a ser verificado")
+    void authenticate_EntradaVencida_VerificaDeNovo() throws Exception {
+        JwtAuthenticationManagerComCache manager = manager(Duration.ofSeconds(30));
+        String token = token(chave, Instant.now().plusSeconds(120), "USER");
+
+        manager.authenticate(bearer(token, null));
+        relogio.addAndGet(Duration.ofSeconds(121).toNanos());
+        manager.authenticate(bearer(token, null));
+
+        assertEquals(2, verificacoes.get());
+    }
+
+    @Test
+    @DisplayName("token com assinatura inválida é rejeitado e não entra no cache")
+    void authenticate_AssinaturaInvalida_NaoGuarda() throws Exception {
+        JwtAuthenticationManagerComCache manager = manager(Duration.ofSeconds(30));
+        RSAKey impostora = new RSAKeyGenerator(2048).keyID("chave-1").generate();
+        String token = token(impostora, Instant.now().plusSeconds(300), "ADMIN");
+
+        assertThrows(InvalidBearerTokenException.class, () -> manager.authenticate(bearer(token, null)));
+        assertThrows(InvalidBearerTokenException.class, () -> manager.authenticate(bearer(token, null)));
+
+        assertEquals(2, verificacoes.get());
+        assertEquals(0, manager.tamanho());
+    }
+
+    @Test
+    @DisplayName("tokens com chave desconhecida não fazem o JWK set ser buscado a cada requisição")
+    void jwkSet_ChaveDesconhecida_BuscaLimitada() throws Exception {
+        JwtAuthenticationManagerComCache manager = manager(Duration.ofSeconds(30));
+        manager.authenticate(bearer(token(chave, Instant.now().plusSeconds(300), "USER"), null));
+        RSAKey desconhecida = new RSAKeyGenerator(2048).keyID("chave-desconhecida").generate();
+
+        for (int i = 0; i < 10; i++) {
+            String token = token(desconhecida, Instant.now().plusSeconds(300 + i), "USER");
+            assertThrows(InvalidBearerTokenException.class, () -> manager.authenticate(bearer(token, null)));
+        }
+
+        assertTrue(buscasJwkSet.get() <= 2, "buscas ao JWK set: " + buscasJwkSet.get());
+    }
+
+    @Test
+    @DisplayName("após uma rotação de chaves no Keycloak, o token com a chave nova é aceito")
+    void jwkSet_RotacaoDeChave_BuscaChaveNova() throws Exception {
+        JwtAuthenticationManagerComCache manager = manager(Duration.ZERO);
+        manager.authenticate(bearer(token(chave, Instant.now().plusSeconds(300), "USER"), null));
+        RSAKey nova = new RSAKeyGenerator(2048).keyID("chave-2").generate();
+        chavesPublicadas.add(nova);
+
+        Authentication autenticado = manager.authenticate(bearer(token(nova, Instant.now().plusSeconds(300), "ADMIN"), null));
+
+        assertEquals(List.of("ROLE_ADMIN"), autenticado.getAuthorities().stream().map(Object::toString).toList());
+        assertEquals(2, buscasJwkSet.get());
+    }
+
+    private JwtAuthenticationManagerComCache manager(Duration intervaloMinimoBusca) throws Exception {
+        URL jwkSetUri = URI.create("http://127.0.0.1:" + servidor.getAddress().getPort() + "/certs").toURL();
+        JwtDecoder decoder = JwtConfig.jwtDecoder(jwkSetUri, ISSUER, Duration.ofMinutes(15), Duration.ofMinutes(1),
+                intervaloMinimoBusca);
+        JwtDecoder contador = token -> {
+            verificacoes.incrementAndGet();
+            return decoder.decode(token);
+        };
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(contador);
+        provider.setJwtAuthenticationConverter(new JWTConverter());
+        return new JwtAuthenticationManagerComCache(provider, 100, Duration.ofMinutes(5), relogio::get);
+    }
+
+    private static BearerTokenAuthenticationToken bearer(String token, Object detalhes) {
+        BearerTokenAuthenticationToken bearer = new BearerTokenAuthenticationToken(token);
+        bearer.setDetails(detalhes);
+        return bearer;
+    }
+
+    private static String token(RSAKey chave, Instant expiracao, String papel) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("paciente-app")
+                .issuer(ISSUER)
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiracao))
+                .claim("realm_access", Map.of("roles", List.of(papel)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(chave.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(chave));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,104 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import com.sobrevidas.crud_pacientes.util.FiltroBloom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "pacientes.cpf-indice.capacidade-minima=1000"
+})
+@Import(CpfIndiceService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CpfIndiceServiceTest {
+
+    @Autowired
+    private CpfIndiceService indice;
+
+    @Autowired
+    private PacienteRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("depois da carga, CPFs cadastrados podem existir e os demais são descartados")
+    void reconstruir_CarregaCpfsDoBanco() {
+        repository.saveAll(LongStream.rangeClosed(1, 200)
+                .mapToObj(i -> Paciente.builder().cpf(String.format("%011d", i * 7)).nome("Paciente " + i).build())
+                .toList());
+
+        indice.reconstruir();
+
+        assertTrue(indice.isPronto());
+        for (long i = 1; i <= 200; i++) {
+            assertTrue(indice.podeExistir(String.format("%011d", i * 7)));
+        }
+        long falsosPositivos = LongStream.rangeClosed(1, 10_000)
+                .filter(i -> indice.podeExistir(String.format("9%010d", i)))
+                .count();
+        assertTrue(falsosPositivos < 300, "falsos positivos: " + falsosPositivos);
+        assertTrue(indice.podeExistir("123.456.789-01"), "formato fora do índice deve ir ao banco");
+    }
+
+    @Test
+    @DisplayName("com o cache compartilhado (várias réplicas) o índice não carrega e todo CPF vai ao banco")
+    void reconstruir_VariasReplicas_MantemIndiceDesligado() {
+        repository.save(Paciente.builder().cpf("00000000007").nome("Paciente").build());
+        CpfIndiceService outraReplica = new CpfIndiceService(repository, transactionTemplate);
+        ReflectionTestUtils.setField(outraReplica, "habilitado", true);
+        ReflectionTestUtils.setField(outraReplica, "variasReplicas", true);
+
+        outraReplica.reconstruir();
+        outraReplica.registrar("12345678901");
+
+        assertFalse(outraReplica.isPronto());
+        assertTrue(outraReplica.podeExistir("99999999999"));
+    }
+
+    @Test
+    @DisplayName("registrar inclui o CPF no filtro em uso e, após o commit, no filtro em reconstrução")
+    void registrar_IncluiCpfNosFiltros() {
+        indice.reconstruir();
+        assertFalse(indice.podeExistir("12345678901"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            indice.registrar("12345678901");
+            assertTrue(indice.podeExistir("12345678901"), "o CPF entra no filtro antes do commit");
+        });
+
+        assertTrue(indice.podeExistir("12345678901"));
+    }
+
+    @Test
+    @DisplayName("FiltroBloom nunca responde negativo para uma chave incluída")
+    void filtroBloom_SemFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(50_000, 0.01);
+        LongStream.range(0, 50_000).forEach(i -> filtro.adicionar(i * 31 + 10_000_000_000L));
+
+        assertTrue(LongStream.range(0, 50_000).allMatch(i -> filtro.podeConter(i * 31 + 10_000_000_000L)));
+        long falsosPositivos = LongStream.range(0, 100_000).filter(i -> filtro.podeConter(i * 31 + 1)).count();
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+        assertEquals(-1, CpfIndiceService.chave("1234567890"));
+        assertEquals(12345678901L, CpfIndiceService.chave("12345678901"));
+    }
+}
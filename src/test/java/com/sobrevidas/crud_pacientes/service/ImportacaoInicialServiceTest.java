@@ -0,0 +1,131 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.health.ImportacaoInicialHealthIndicator;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacaoInicialServiceTest {
+
+    @Mock
+    private PacienteRepository repository;
+
+    @Mock
+    private PacienteImportService importService;
+
+    @Mock
+    private PacienteCopyImportService copyImportService;
+
+    @Mock
+    private CpfIndiceService cpfIndice;
+
+    @InjectMocks
+    private ImportacaoInicialService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "habilitada", true);
+        ReflectionTestUtils.setField(service, "arquivo", "/pacientes.csv");
+        ReflectionTestUtils.setField(service, "modo", "jpa");
+    }
+
+    @Test
+    @DisplayName("importa o CSV quando o banco está vazio")
+    void importarSeNecessario_ImportaQuandoBancoVazio() throws IOException {
+        when(repository.count()).thenReturn(0L);
+
+        service.importarSeNecessario();
+
+        verify(importService).importarCsvInterno("/pacientes.csv");
+        assertEquals(ImportacaoInicialService.Estado.CONCLUIDA, service.getEstado());
+    }
+
+    @Test
+    @DisplayName("no modo copy, reconstrói o índice de CPFs depois da importação")
+    void importarSeNecessario_ModoCopyReconstroiIndiceDeCpfs() throws IOException {
+        ReflectionTestUtils.setField(service, "modo", "copy");
+        when(repository.count()).thenReturn(0L);
+
+        service.importarSeNecessario();
+
+        var ordem = inOrder(copyImportService, cpfIndice);
+        ordem.verify(copyImportService).importarCsv(any());
+        ordem.verify(cpfIndice).reconstruir();
+        assertEquals(ImportacaoInicialService.Estado.CONCLUIDA, service.getEstado());
+    }
+
+    @Test
+    @DisplayName("não importa quando o banco já contém pacientes")
+    void importarSeNecessario_NaoImportaQuandoBancoPopulado() throws IOException {
+        when(repository.count()).thenReturn(10L);
+
+        service.importarSeNecessario();
+
+        verify(importService, never()).importarCsvInterno(anyString());
+        assertEquals(ImportacaoInicialService.Estado.NAO_NECESSARIA, service.getEstado());
+    }
+
+    @Test
+    @DisplayName("retoma a importação interrompida mesmo com pacientes já gravados")
+    void importarSeNecessario_RetomaImportacaoInterrompida() throws IOException {
+        when(importService.existeImportacaoInterrompida("classpath:/pacientes.csv")).thenReturn(true);
+
+        service.importarSeNecessario();
+
+        verify(importService).importarCsvInterno("/pacientes.csv");
+        verify(repository, never()).count();
+        assertEquals(ImportacaoInicialService.Estado.CONCLUIDA, service.getEstado());
+    }
+
+    @Test
+    @DisplayName("registra a falha da importação sem propagar a exceção")
+    void importarSeNecessario_RegistraFalha() throws IOException {
+        when(repository.count()).thenReturn(0L);
+        when(importService.importarCsvInterno("/pacientes.csv"))
+                .thenThrow(new IOException("Arquivo não encontrado no classpath: /pacientes.csv"));
+
+        service.importarSeNecessario();
+
+        assertEquals(ImportacaoInicialService.Estado.FALHOU, service.getEstado());
+        assertEquals("Arquivo não encontrado no classpath: /pacientes.csv", service.getErro());
+    }
+
+    @Test
+    @DisplayName("quando desabilitada, não consulta o banco nem importa")
+    void agendarImportacaoInicial_NaoFazNadaQuandoDesabilitada() {
+        ReflectionTestUtils.setField(service, "habilitada", false);
+
+        service.agendarImportacaoInicial();
+
+        verifyNoInteractions(repository, importService, copyImportService);
+        assertEquals(ImportacaoInicialService.Estado.DESABILITADA, service.getEstado());
+    }
+
+    @Test
+    @DisplayName("health fica OUT_OF_SERVICE durante a importação apenas se configurado para bloquear a prontidão")
+    void healthIndicator_RefleteEstadoDaImportacao() {
+        ImportacaoInicialHealthIndicator indicador = new ImportacaoInicialHealthIndicator(service);
+        assertEquals(Status.UP, indicador.health().getStatus());
+        assertEquals(ImportacaoInicialService.Estado.AGUARDANDO, indicador.health().getDetails().get("estado"));
+
+        ReflectionTestUtils.setField(indicador, "bloquearProntidao", true);
+        assertEquals(Status.OUT_OF_SERVICE, indicador.health().getStatus());
+
+        when(repository.count()).thenReturn(10L);
+        service.importarSeNecessario();
+        assertEquals(Status.UP, indicador.health().getStatus());
+    }
+}
@@ -0,0 +1,125 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.dto.ImportacaoStatusDTO;
+import com.sobrevidas.crud_pacientes.dto.ResultadoImportacaoDTO;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacaoJobServiceTest {
+
+    @Mock
+    private PacienteImportService importService;
+
+    @TempDir
+    Path diretorio;
+
+    private ExecutorService executor;
+    private ImportacaoJobService service;
+
+    private final MockMultipartFile arquivo = new MockMultipartFile(
+            "arquivo", "pacientes.csv", "text/csv", "cpf,nome\n1,a\n2,b\n".getBytes());
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        service = new ImportacaoJobService(importService, diretorio, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("iniciar retorna imediatamente e a importação conclui em segundo plano")
+    void iniciar_ExecutaImportacaoEmSegundoPlano() throws Exception {
+        when(importService.importarCsv(any(InputStream.class), anyString(), any(ProgressoImportacao.class))).thenAnswer(invocation -> {
+            InputStream in = invocation.getArgument(0);
+            in.readAllBytes();
+            invocation.<ProgressoImportacao>getArgument(2).loteGravado(2, 1);
+            return new ResultadoImportacaoDTO(2, 0, 1);
+        });
+
+        ImportacaoStatusDTO inicial = service.iniciar(arquivo);
+        aguardarExecutor();
+
+        ImportacaoStatusDTO status = service.buscarStatus(inicial.id());
+        assertEquals("CONCLUIDA", status.status());
+        assertEquals(2, status.linhasProcessadas());
+        assertEquals(1, status.linhasRejeitadas());
+        verify(importService).importarCsv(any(InputStream.class), startsWith("sha256:"), any(ProgressoImportacao.class));
+        assertEquals(100.0, status.percentualConcluido());
+        assertEquals(0L, status.segundosRestantes());
+        assertNotNull(status.finalizadoEm());
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(0, arquivos.count(), "o arquivo temporário deve ser removido ao final");
+        }
+    }
+
+    @Test
+    @DisplayName("buscarStatus informa a falha da importação")
+    void buscarStatus_InformaFalha() throws Exception {
+        when(importService.importarCsv(any(InputStream.class), anyString(), any(ProgressoImportacao.class)))
+                .thenThrow(new IOException("CSV corrompido"));
+
+        ImportacaoStatusDTO inicial = service.iniciar(arquivo);
+        aguardarExecutor();
+
+        ImportacaoStatusDTO status = service.buscarStatus(inicial.id());
+        assertEquals("FALHOU", status.status());
+        assertEquals("CSV corrompido", status.erro());
+    }
+
+    @Test
+    @DisplayName("iniciar lança TaskRejectedException quando não há vaga para a importação")
+    void iniciar_LancaTaskRejectedException_QuandoExecutorCheio() throws Exception {
+        executor.shutdown();
+
+        assertThrows(TaskRejectedException.class, () -> service.iniciar(arquivo));
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(0, arquivos.count());
+        }
+    }
+
+    @Test
+    @DisplayName("iniciar lança InvalidRequestException para arquivo vazio")
+    void iniciar_LancaInvalidRequestException_QuandoArquivoVazio() {
+        MockMultipartFile vazio = new MockMultipartFile("arquivo", "vazio.csv", "text/csv", new byte[0]);
+
+        assertThrows(InvalidRequestException.class, () -> service.iniciar(vazio));
+        verifyNoInteractions(importService);
+    }
+
+    @Test
+    @DisplayName("buscarStatus lança ResourceNotFoundException para importação inexistente")
+    void buscarStatus_LancaResourceNotFoundException_QuandoIdNaoExiste() {
+        assertThrows(ResourceNotFoundException.class, () -> service.buscarStatus(UUID.randomUUID()));
+    }
+
+    private void aguardarExecutor() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
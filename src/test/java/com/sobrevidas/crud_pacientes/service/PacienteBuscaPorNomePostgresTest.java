@@ -0,0 +1,135 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark da busca por nome (GET /pacientes/search/nome) contra um PostgreSQL 16+ local, no mesmo esquema de
+ * {@link PacienteCopyImportServiceTest}: roda só com {@code PACIENTES_IT_JDBC_URL} definida, em um schema
+ * descartável. {@code PACIENTES_IT_BUSCA_LINHAS} define o tamanho do cadastro gerado (padrão 1.000.000).
+ * O plano é verificado com EXPLAIN e as latências p50/p99 são registradas no log.
+ */
+@EnabledIfEnvironmentVariable(named = "PACIENTES_IT_JDBC_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PacienteBuscaPorNomePostgresTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PacienteBuscaPorNomePostgresTest.class);
+    private static final List<String> TERMOS = List.of("joao silva", "maria goncalvez", "jose de souza", "ana conceicao");
+
+    private final String schema = "busca_nome_it_" + System.nanoTime();
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private NamedParameterJdbcTemplate consultas;
+
+    @BeforeAll
+    void criarCadastro() {
+        dataSource = new SingleConnectionDataSource(
+                System.getenv("PACIENTES_IT_JDBC_URL"),
+                Objects.requireNonNullElse(System.getenv("PACIENTES_IT_JDBC_USER"), "postgres"),
+                Objects.requireNonNullElse(System.getenv("PACIENTES_IT_JDBC_PASSWORD"), "1234"),
+                true);
+        jdbc = new JdbcTemplate(dataSource);
+        consultas = new NamedParameterJdbcTemplate(dataSource);
+        long linhas = Long.parseLong(Objects.requireNonNullElse(System.getenv("PACIENTES_IT_BUSCA_LINHAS"), "1000000"));
+
+        jdbc.execute("CREATE SCHEMA " + schema);
+        jdbc.execute("SET search_path TO " + schema + ", public");
+        jdbc.execute("""
+                CREATE TABLE pacientes (
+                    id bigint PRIMARY KEY, cpf varchar(255) UNIQUE, nome varchar(255), nome_mae varchar(255),
+                    tem_lesao_suspeita boolean)
+                """);
+        jdbc.update("""
+                INSERT INTO pacientes (id, cpf, nome, nome_mae, tem_lesao_suspeita)
+                SELECT g, lpad(g::text, 11, '0'),
+                       (ARRAY['João','Maria','José','Ana','Francisco','Antônia','Carlos','Lúcia','Paulo','Márcia'])[1 + g % 10]
+                           || ' ' || (ARRAY['Silva','Souza','Gonçalves','Conceição','Araújo','Pereira','Lima','Gomes'])[1 + (g / 10) % 8]
+                           || ' ' || substr(md5(g::text), 1, 8),
+                       (ARRAY['Raimunda','Francisca','Terezinha','Sebastiana'])[1 + g % 4]
+                           || ' ' || (ARRAY['Oliveira','Rodrigues','Ferreira','Alves','Ribeiro'])[1 + (g / 7) % 5]
+                           || ' ' || substr(md5((g * 7)::text), 1, 8),
+                       g % 50 = 0
+                FROM generate_series(1, ?) AS g
+                """, linhas);
+        jdbc.update("INSERT INTO pacientes (id, cpf, nome, nome_mae) VALUES (?, '99999999999', 'Wanderléia Quintanilha', 'Odete Quintanilha')",
+                linhas + 1);
+        new ResourceDatabasePopulator(new ClassPathResource("db/indices-postgresql.sql")).execute(dataSource);
+        jdbc.execute("ANALYZE pacientes");
+    }
+
+    @AfterAll
+    void removerCadastro() {
+        if (jdbc != null) {
+            jdbc.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("busca por nome tolera acento ausente e erro de digitação, e ordena pela semelhança")
+    void buscaPorNome_ToleraAcentoEErro() {
+        List<Map<String, Object>> resultado = buscar(PacienteService.normalizarTermo("Wanderleia Quintanila"));
+
+        assertFalse(resultado.isEmpty());
+        assertEquals("99999999999", resultado.get(0).get("cpf"));
+    }
+
+    @Test
+    @DisplayName("busca por nome usa os índices de trigramas, sem varredura sequencial")
+    void buscaPorNome_NaoUsaVarreduraSequencial() {
+        for (String termo : TERMOS) {
+            String plano = String.join("\n", consultas.queryForList(
+                    "EXPLAIN " + PacienteRepository.BUSCA_POR_NOME_SEMELHANTE, parametros(termo), String.class));
+
+            assertFalse(plano.contains("Seq Scan"), plano);
+            assertTrue(plano.contains("idx_pacientes_nome_trgm"), plano);
+        }
+    }
+
+    @Test
+    @DisplayName("benchmark: registra p50 e p99 da busca por nome")
+    void buscaPorNome_Benchmark() {
+        TERMOS.forEach(this::buscar);
+
+        int execucoes = 200;
+        long[] latencias = new long[execucoes];
+        for (int i = 0; i < execucoes; i++) {
+            long inicio = System.nanoTime();
+            buscar(TERMOS.get(i % TERMOS.size()));
+            latencias[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(latencias);
+
+        log.info("Busca por nome em {} linhas: p50 {} ms, p99 {} ms",
+                jdbc.queryForObject("SELECT count(*) FROM pacientes", Long.class),
+                latencias[execucoes / 2] / 1_000_000.0,
+                latencias[(int) (execucoes * 0.99)] / 1_000_000.0);
+    }
+
+    private List<Map<String, Object>> buscar(String termo) {
+        return consultas.queryForList(PacienteRepository.BUSCA_POR_NOME_SEMELHANTE, parametros(termo));
+    }
+
+    private static Map<String, Object> parametros(String termo) {
+        return Map.of("termo", termo, "limite", PacienteService.LIMITE_BUSCA_NOME_PADRAO);
+    }
+}
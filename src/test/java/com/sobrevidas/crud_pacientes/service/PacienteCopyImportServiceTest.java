@@ -0,0 +1,131 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.dto.ResultadoImportacaoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Os testes de integração rodam contra um PostgreSQL 16+ local (sem Testcontainers), apontado pela variável
+ * {@code PACIENTES_IT_JDBC_URL} (ex.: {@code jdbc:postgresql://localhost:5432/sobrevidas_db}). Cada execução usa
+ * um schema descartável, então o banco de desenvolvimento do docker-compose pode ser reaproveitado.
+ */
+class PacienteCopyImportServiceTest {
+
+    @Test
+    @DisplayName("lerCabecalho aceita as colunas conhecidas e ignora o BOM")
+    void lerCabecalho_AceitaColunasConhecidas() throws IOException {
+        PacienteCopyImportService service = new PacienteCopyImportService(mock(DataSource.class), new MetricasImportacao(new SimpleMeterRegistry()));
+
+        List<String> colunas = service.lerCabecalho(new BufferedReader(new StringReader("\uFEFFcpf,Nome,data_nascimento,eh_tabagista\n")));
+
+        assertEquals(List.of("cpf", "nome", "data_nascimento", "eh_tabagista"), colunas);
+    }
+
+    @Test
+    @DisplayName("importarCsv rejeita coluna desconhecida antes de abrir conexão")
+    void importarCsv_LancaIOException_QuandoColunaDesconhecida() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        PacienteCopyImportService service = new PacienteCopyImportService(dataSource, new MetricasImportacao(new SimpleMeterRegistry()));
+
+        assertThrows(IOException.class, () -> service.importarCsv(csv("cpf,nome,data_nascimento,\"x); DROP TABLE pacientes; --\"\n")));
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("importarCsv exige as colunas cpf, nome e data_nascimento")
+    void importarCsv_LancaIOException_QuandoFaltaColunaObrigatoria() {
+        PacienteCopyImportService service = new PacienteCopyImportService(mock(DataSource.class), new MetricasImportacao(new SimpleMeterRegistry()));
+
+        assertThrows(IOException.class, () -> service.importarCsv(csv("cpf,nome\n")));
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "PACIENTES_IT_JDBC_URL", matches = ".+")
+    @DisplayName("importarCsv carrega via COPY e mescla por CPF, contando inseridos, atualizados e rejeitados")
+    void importarCsv_CarregaEMesclaPorCpf() throws Exception {
+        String schema = "copy_it_" + System.nanoTime();
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                System.getenv("PACIENTES_IT_JDBC_URL"),
+                Objects.requireNonNullElse(System.getenv("PACIENTES_IT_JDBC_USER"), "postgres"),
+                Objects.requireNonNullElse(System.getenv("PACIENTES_IT_JDBC_PASSWORD"), "1234"),
+                true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        try {
+            jdbc.execute("CREATE SCHEMA " + schema);
+            jdbc.execute("SET search_path TO " + schema);
+            jdbc.execute("CREATE SEQUENCE pacientes_seq START WITH 1 INCREMENT BY 50");
+            jdbc.execute("""
+                    CREATE TABLE pacientes (
+                        id bigint PRIMARY KEY, cpf varchar(255) UNIQUE, nome varchar(255), data_nascimento date,
+                        nome_mae varchar(255), cep varchar(255), endereco varchar(255), num_endereco varchar(255),
+                        complemento varchar(255), bairro varchar(255), cidade varchar(255), estado varchar(255),
+                        telefone_celular varchar(255), telefone_responsavel varchar(255), email varchar(255),
+                        sexo varchar(255), num_cartao_sus varchar(255), eh_tabagista boolean, eh_etilista boolean,
+                        tem_lesao_suspeita boolean, participa_smart_monitor boolean,
+                        versao bigint NOT NULL DEFAULT 0,
+                        criado_em timestamp(6) with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        atualizado_em timestamp(6) with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP)
+                    """);
+            jdbc.execute("CREATE SEQUENCE pacientes_eventos_seq START WITH 1 INCREMENT BY 1");
+            jdbc.execute("""
+                    CREATE TABLE pacientes_eventos (
+                        id bigint PRIMARY KEY, posicao bigint UNIQUE, paciente_id bigint NOT NULL,
+                        tipo varchar(20) NOT NULL, versao bigint, ocorrido_em timestamp(6) with time zone NOT NULL)
+                    """);
+            PacienteCopyImportService service = new PacienteCopyImportService(dataSource, new MetricasImportacao(new SimpleMeterRegistry()));
+
+            ResultadoImportacaoDTO primeira;
+            try (InputStream csv = getClass().getResourceAsStream("/pacientes-teste.csv")) {
+                primeira = service.importarCsv(csv);
+            }
+            assertEquals(new ResultadoImportacaoDTO(5, 0, 0), primeira);
+
+            ResultadoImportacaoDTO segunda = service.importarCsv(csv("""
+                    cpf,nome,data_nascimento,eh_tabagista
+                    11111111111,Ana Souza Atualizada,1980-05-10 00:00:00,false
+                    66666666666,Fabio Nunes,1999-09-09,NULL
+                    66666666666,Fabio Nunes Duplicado,1999-09-09,true
+                    123,CPF Curto,1999-09-09,true
+                    77777777777,Data Invalida,1999-02-31,true
+                    """));
+            assertEquals(new ResultadoImportacaoDTO(1, 1, 3), segunda);
+
+            assertEquals("Ana Souza Atualizada",
+                    jdbc.queryForObject("SELECT nome FROM pacientes WHERE cpf = '11111111111'", String.class));
+            assertEquals(Boolean.TRUE,
+                    jdbc.queryForObject("SELECT eh_tabagista FROM pacientes WHERE cpf = '66666666666'", Boolean.class));
+            assertEquals(6, jdbc.queryForObject("SELECT count(*) FROM pacientes", Integer.class));
+            // O atualizado_em é o do fim da carga, e não o do início da transação (o default de criado_em).
+            assertEquals(0, jdbc.queryForObject(
+                    "SELECT count(*) FROM pacientes WHERE atualizado_em <= criado_em", Integer.class));
+            // Cada paciente mesclado gera um evento no outbox, com a versão gravada.
+            assertEquals(List.of("CRIADO:0", "CRIADO:0", "CRIADO:0", "CRIADO:0", "CRIADO:0", "ATUALIZADO:1", "CRIADO:0"),
+                    jdbc.queryForList("SELECT tipo || ':' || versao FROM pacientes_eventos ORDER BY id, paciente_id",
+                            String.class));
+        } finally {
+            jdbc.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    private static InputStream csv(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,61 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapper;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PacienteExportServiceTest {
+
+    @Mock
+    private PacienteRepository repository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final PacienteMapper mapper = Mappers.getMapper(PacienteMapper.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private PacienteExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PacienteExportService(repository, mapper, objectMapper, entityManager,
+                new MappingJackson2CborHttpMessageConverter(), new MappingJackson2SmileHttpMessageConverter());
+    }
+
+    @Test
+    @DisplayName("exportarNdjson escreve um objeto por linha, sem espaço antes das linhas seguintes")
+    void exportarNdjson_UmObjetoPorLinha() throws Exception {
+        Paciente ana = Paciente.builder().id(1L).cpf("11111111111").nome("Ana").build();
+        Paciente bruno = Paciente.builder().id(2L).cpf("22222222222").nome("Bruno").build();
+        when(repository.streamTodosOrdenadosPorId()).thenReturn(Stream.of(ana, bruno));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, service.exportarNdjson(out));
+
+        assertEquals(objectMapper.writeValueAsString(mapper.toResponseDTO(ana)) + "\n"
+                        + objectMapper.writeValueAsString(mapper.toResponseDTO(bruno)) + "\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(ana);
+        verify(entityManager).detach(bruno);
+    }
+}
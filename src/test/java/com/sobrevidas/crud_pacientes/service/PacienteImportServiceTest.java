@@ -0,0 +1,271 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.dto.ResultadoImportacaoDTO;
+import com.sobrevidas.crud_pacientes.entity.ImportacaoCheckpoint;
+import com.sobrevidas.crud_pacientes.entity.ImportacaoRejeicao;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import com.sobrevidas.crud_pacientes.repository.ImportacaoCheckpointRepository;
+import com.sobrevidas.crud_pacientes.repository.ImportacaoRejeicaoRepository;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PacienteImportServiceTest {
+
+    @Mock
+    private PacienteRepository repository;
+
+    @Mock
+    private ImportacaoCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ImportacaoRejeicaoRepository rejeicaoRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CpfIndiceService cpfIndice;
+
+    @Mock
+    private PacienteEventoService eventos;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private MetricasImportacao metricas = new MetricasImportacao(meterRegistry);
+
+    @InjectMocks
+    private PacienteImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "tamanhoLote", 2);
+        ReflectionTestUtils.setField(importService, "lotesEmAndamento", 2);
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> callback = invocation.getArgument(0);
+            callback.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("importarCsvInterno grava o CSV em lotes, com os eventos de cada lote, limpando o EntityManager a cada lote")
+    void importarCsvInterno_GravaEmLotes() throws IOException {
+        List<List<Paciente>> lotes = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            lotes.add(List.copyOf(invocation.<List<Paciente>>getArgument(0)));
+            return invocation.getArgument(0);
+        });
+
+        ResultadoImportacaoDTO resultado = importService.importarCsvInterno("/pacientes-teste.csv");
+
+        assertEquals(new ResultadoImportacaoDTO(5, 0, 0), resultado);
+        assertEquals(List.of(2, 2, 1), lotes.stream().map(List::size).toList());
+        // Três lotes mais a transação que marca a importação como concluída.
+        verify(transactionTemplate, times(4)).executeWithoutResult(any());
+
+        InOrder ordem = inOrder(repository, eventos, entityManager);
+        for (int i = 0; i < 3; i++) {
+            ordem.verify(repository).saveAll(anyList());
+            ordem.verify(eventos).registrar(eq(TipoEventoPaciente.CRIADO), eq(lotes.get(i)));
+            ordem.verify(repository).flush();
+            ordem.verify(entityManager).clear();
+        }
+    }
+
+    @Test
+    @DisplayName("importarCsvInterno grava um checkpoint por lote e marca a importação como concluída")
+    void importarCsvInterno_GravaCheckpointPorLote() throws IOException {
+        List<String> checkpoints = new ArrayList<>();
+        AtomicReference<ImportacaoCheckpoint> salvo = new AtomicReference<>();
+        when(checkpointRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(salvo.get()));
+        when(checkpointRepository.save(any(ImportacaoCheckpoint.class))).thenAnswer(invocation -> {
+            ImportacaoCheckpoint checkpoint = invocation.getArgument(0);
+            checkpoints.add(checkpoint.getChave() + "@" + checkpoint.getUltimoRegistro() + (checkpoint.isConcluida() ? " concluída" : ""));
+            salvo.set(checkpoint);
+            return checkpoint;
+        });
+
+        importService.importarCsvInterno("/pacientes-teste.csv");
+
+        String chave = "classpath:/pacientes-teste.csv";
+        assertEquals(List.of(chave + "@2", chave + "@4", chave + "@5", chave + "@5 concluída"), checkpoints);
+        assertEquals(5, salvo.get().getLinhasGravadas());
+    }
+
+    @Test
+    @DisplayName("importarCsv retoma após o último registro do checkpoint")
+    void importarCsv_RetomaAposCheckpoint() throws IOException {
+        when(checkpointRepository.findById("classpath:/pacientes-teste.csv")).thenReturn(Optional.of(
+                ImportacaoCheckpoint.builder().chave("classpath:/pacientes-teste.csv").ultimoRegistro(2).linhasGravadas(2).build()));
+        List<String> cpfsGravados = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            invocation.<List<Paciente>>getArgument(0).forEach(p -> cpfsGravados.add(p.getCpf()));
+            return invocation.getArgument(0);
+        });
+
+        ResultadoImportacaoDTO resultado = importService.importarCsvInterno("/pacientes-teste.csv");
+
+        assertEquals(new ResultadoImportacaoDTO(3, 0, 0), resultado);
+        assertEquals(List.of("33333333333", "44444444444", "55555555555"), cpfsGravados);
+    }
+
+    @Test
+    @DisplayName("importarCsv não faz nada quando a importação já foi concluída")
+    void importarCsv_NaoReimporta_QuandoJaConcluida() throws IOException {
+        when(checkpointRepository.findById("classpath:/pacientes-teste.csv")).thenReturn(Optional.of(
+                ImportacaoCheckpoint.builder().chave("classpath:/pacientes-teste.csv").ultimoRegistro(5).concluida(true).build()));
+
+        ResultadoImportacaoDTO resultado = importService.importarCsvInterno("/pacientes-teste.csv");
+
+        assertEquals(new ResultadoImportacaoDTO(0, 0, 0), resultado);
+        verifyNoInteractions(repository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("importarCsvInterno converte datas e flags booleanas do CSV")
+    void importarCsvInterno_ConverteCampos() throws IOException {
+        ReflectionTestUtils.setField(importService, "tamanhoLote", 10);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Paciente>> captor = ArgumentCaptor.forClass(List.class);
+
+        importService.importarCsvInterno("/pacientes-teste.csv");
+
+        verify(repository).saveAll(captor.capture());
+        Paciente bruno = captor.getValue().get(1);
+        assertEquals("22222222222", bruno.getCpf());
+        assertEquals(LocalDate.of(1975, 11, 2), bruno.getDataNascimento());
+        assertFalse(bruno.getEhTabagista());
+        assertTrue(bruno.getEhEtilista());
+        assertNull(bruno.getTemLesaoSuspeita());
+        assertNull(bruno.getId());
+    }
+
+    @Test
+    @DisplayName("importarCsv grava os lotes na ordem do arquivo mesmo com conversão paralela e fila mínima")
+    void importarCsv_GravaLotesNaOrdemDoArquivo() throws IOException {
+        ReflectionTestUtils.setField(importService, "tamanhoLote", 1);
+        ReflectionTestUtils.setField(importService, "lotesEmAndamento", 1);
+        List<String> cpfsGravados = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            invocation.<List<Paciente>>getArgument(0).forEach(p -> cpfsGravados.add(p.getCpf()));
+            return invocation.getArgument(0);
+        });
+
+        ResultadoImportacaoDTO resultado = importService.importarCsvInterno("/pacientes-teste.csv");
+
+        assertEquals(5, resultado.inseridos());
+        assertEquals(List.of("11111111111", "22222222222", "33333333333", "44444444444", "55555555555"), cpfsGravados);
+    }
+
+    @Test
+    @DisplayName("importarCsv envia linhas inválidas para a quarentena e grava as demais")
+    void importarCsv_EnviaLinhasInvalidasParaQuarentena() throws IOException {
+        String csv = """
+                cpf,nome,nome_mae,data_nascimento,cep,endereco,num_endereco,complemento,bairro,cidade,estado,telefone_celular,telefone_responsavel,email,sexo,num_cartao_sus,eh_tabagista,eh_etilista,tem_lesao_suspeita,participa_smart_monitor
+                11111111111,Ana,Mae,data-invalida,,,,,,,,,,,,,,,,
+                22222222222,Bruno,Mae,1975-11-02,,,,,,,,,,,,,,,,
+                123,Carla,Mae,1990-01-30,,,,,,,,,,,,,,,,
+                """;
+        List<String> cpfsGravados = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            invocation.<List<Paciente>>getArgument(0).forEach(p -> cpfsGravados.add(p.getCpf()));
+            return invocation.getArgument(0);
+        });
+        List<ImportacaoRejeicao> rejeicoes = new ArrayList<>();
+        when(rejeicaoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            rejeicoes.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        List<int[]> progresso = new ArrayList<>();
+
+        ResultadoImportacaoDTO resultado = importService.importarCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "teste",
+                (gravadas, rejeitadas) -> progresso.add(new int[]{gravadas, rejeitadas}));
+
+        assertEquals(new ResultadoImportacaoDTO(1, 0, 2), resultado);
+        assertEquals(List.of("22222222222"), cpfsGravados);
+        assertEquals(List.of(2L, 4L), rejeicoes.stream().map(ImportacaoRejeicao::getLinha).toList());
+        assertTrue(rejeicoes.get(0).getMotivo().startsWith("DateTimeParseException"));
+        assertTrue(rejeicoes.get(1).getMotivo().contains("CPF"));
+        assertTrue(rejeicoes.get(1).getConteudo().startsWith("123,Carla,Mae"));
+        assertEquals("teste", rejeicoes.get(0).getChave());
+        assertEquals(3, progresso.stream().mapToInt(p -> p[0] + p[1]).sum());
+    }
+
+    @Test
+    @DisplayName("importarCsv conta as linhas gravadas e rejeitadas e registra a duração da importação")
+    void importarCsv_RegistraMetricas() throws IOException {
+        String csv = """
+                cpf,nome,data_nascimento
+                11111111111,Ana,1980-05-10
+                22222222222,Bruno,1975-11-02
+                123,Carla,1990-01-30
+                """;
+
+        importService.importarCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, linhas("inserida"));
+        assertEquals(1, linhas("rejeitada"));
+        Timer duracao = meterRegistry.get("pacientes.importacao").tags("modo", "jpa", "exception", "none").timer();
+        assertEquals(1, duracao.count());
+    }
+
+    @Test
+    @DisplayName("importarCsv lança IOException quando falta coluna obrigatória no cabeçalho")
+    void importarCsv_LancaIOException_QuandoFaltaColunaObrigatoria() {
+        String csv = """
+                cpf,nome
+                11111111111,Ana
+                """;
+
+        assertThrows(IOException.class,
+                () -> importService.importarCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+        verify(repository, never()).saveAll(anyList());
+        assertEquals(1, meterRegistry.get("pacientes.importacao").tags("exception", "IOException").timer().count());
+    }
+
+    @Test
+    @DisplayName("importarCsvInterno lança IOException quando o arquivo não existe")
+    void importarCsvInterno_LancaIOException_QuandoArquivoNaoExiste() {
+        assertThrows(IOException.class, () -> importService.importarCsvInterno("/nao-existe.csv"));
+        verifyNoInteractions(repository);
+    }
+
+    private double linhas(String resultado) {
+        return meterRegistry.get("pacientes.importacao.linhas").tags("modo", "jpa", "resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,176 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import com.sobrevidas.crud_pacientes.dto.PacienteLoteItemDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteLoteResponseDTO;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.exception.ResourceAlreadyExistsException;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapper;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.sobrevidas.crud_pacientes.PacientesTeste.paciente;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PacienteLoteServiceTest {
+
+    @Mock
+    private PacienteRepository repository;
+
+    @Mock
+    private CpfIndiceService cpfIndice;
+
+    @Mock
+    private PacienteEventoService eventos;
+
+    private final PacienteMapper mapper = Mappers.getMapper(PacienteMapper.class);
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PACIENTES);
+    private ValidatorFactory validatorFactory;
+    private PacienteLoteService service;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        service = new PacienteLoteService(repository, mapper, validatorFactory.getValidator(), cacheManager, cpfIndice, eventos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @DisplayName("salvarPacientes cria novos, atualiza existentes e consulta os CPFs uma única vez")
+    void salvarPacientes_CriaEAtualizaComUmaConsulta() {
+        Paciente existente = Paciente.builder().id(7L).cpf("22222222222").nome("Nome Antigo").build();
+        when(repository.findByCpfIn(anyCollection())).thenReturn(List.of(existente));
+        Cache cache = cacheManager.getCache(CacheConfig.PACIENTES);
+        cache.put(7L, mapper.toResponseDTO(existente));
+        AtomicLong sequencia = new AtomicLong(100);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            invocation.<List<Paciente>>getArgument(0).forEach(p -> p.setId(sequencia.incrementAndGet()));
+            return invocation.getArgument(0);
+        });
+        // Simula o Hibernate: o flush incrementa a versão da entidade que teve o UPDATE.
+        doAnswer(invocation -> {
+            existente.setVersao(existente.getVersao() + 1);
+            return null;
+        }).when(repository).flush();
+
+        PacienteLoteResponseDTO resposta = service.salvarPacientes(List.of(
+                paciente("11111111111", "Ana"), paciente("22222222222", "Bruno"), paciente("33333333333", "Carla")));
+
+        assertEquals(2, resposta.criados());
+        assertEquals(1, resposta.atualizados());
+        assertEquals(0, resposta.rejeitados());
+        assertEquals(List.of("CRIADO", "ATUALIZADO", "CRIADO"),
+                resposta.itens().stream().map(PacienteLoteItemDTO::status).toList());
+        assertEquals(List.of(101L, 7L, 102L), resposta.itens().stream().map(PacienteLoteItemDTO::id).toList());
+        assertEquals("Bruno", existente.getNome());
+        assertNull(cache.get(7L), "o paciente atualizado deve sair do cache");
+
+        verify(repository).findByCpfIn(argThat((Collection<String> cpfs) ->
+                cpfs.containsAll(List.of("11111111111", "22222222222", "33333333333"))));
+        verify(repository, never()).existsByCpf(anyString());
+        verify(repository).flush();
+        verify(cpfIndice).registrar(List.of("11111111111", "33333333333"));
+        verify(eventos).registrar(eq(TipoEventoPaciente.CRIADO), argThat((Collection<Paciente> pacientes) ->
+                pacientes.stream().map(Paciente::getId).toList().equals(List.of(101L, 102L))));
+        verify(eventos).registrar(eq(TipoEventoPaciente.ATUALIZADO), argThat((Collection<Paciente> pacientes) ->
+                pacientes.size() == 1 && pacientes.contains(existente)));
+    }
+
+    @Test
+    @DisplayName("salvarPacientes não publica ATUALIZADO nem invalida o cache quando o existente não mudou")
+    void salvarPacientes_NaoPublicaAtualizado_QuandoVersaoNaoMuda() {
+        Paciente existente = Paciente.builder().id(7L).cpf("22222222222").nome("Bruno").versao(3).build();
+        when(repository.findByCpfIn(anyCollection())).thenReturn(List.of(existente));
+        Cache cache = cacheManager.getCache(CacheConfig.PACIENTES);
+        cache.put(7L, mapper.toResponseDTO(existente));
+
+        PacienteLoteResponseDTO resposta = service.salvarPacientes(List.of(paciente("22222222222", "Bruno")));
+
+        assertEquals(1, resposta.atualizados());
+        assertNotNull(cache.get(7L), "o cache do paciente sem alteração deve ser mantido");
+        verify(eventos).registrar(eq(TipoEventoPaciente.ATUALIZADO), argThat((Collection<Paciente> pacientes) ->
+                pacientes.isEmpty()));
+    }
+
+    @Test
+    @DisplayName("salvarPacientes rejeita itens inválidos e CPFs repetidos sem impedir os demais")
+    void salvarPacientes_RejeitaItensInvalidos() {
+        when(repository.findByCpfIn(anyCollection())).thenReturn(List.of());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PacienteLoteResponseDTO resposta = service.salvarPacientes(Arrays.asList(
+                paciente("11111111111", "Ana"), paciente("123", "Cpf Curto"), paciente("11111111111", "Ana Repetida"), null));
+
+        assertEquals(1, resposta.criados());
+        assertEquals(3, resposta.rejeitados());
+        assertEquals("CPF deve ter 11 dígitos", resposta.itens().get(1).erros().get("cpf"));
+        assertTrue(resposta.itens().get(2).erros().get("cpf").contains("item 0"));
+        assertEquals("REJEITADO", resposta.itens().get(3).status());
+        verify(repository).saveAll(argThat((List<Paciente> novos) -> novos.size() == 1));
+    }
+
+    @Test
+    @DisplayName("salvarPacientes lança InvalidRequestException para lote vazio ou acima do máximo")
+    void salvarPacientes_LancaInvalidRequestException_QuandoTamanhoInvalido() {
+        assertThrows(InvalidRequestException.class, () -> service.salvarPacientes(List.of()));
+        assertThrows(InvalidRequestException.class, () -> service.salvarPacientes(
+                Collections.nCopies(PacienteLoteService.TAMANHO_MAXIMO_LOTE + 1, paciente("11111111111", "Ana"))));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("salvarPacientes lança ResourceAlreadyExistsException quando outro cadastro concorrente viola o CPF único")
+    void salvarPacientes_LancaResourceAlreadyExistsException_QuandoCpfConcorrente() {
+        when(repository.findByCpfIn(anyCollection())).thenReturn(List.of());
+        doThrow(violacao("duplicate key value violates unique constraint", "23505")).when(repository).flush();
+
+        assertThrows(ResourceAlreadyExistsException.class,
+                () -> service.salvarPacientes(List.of(paciente("11111111111", "Ana"))));
+    }
+
+    @Test
+    @DisplayName("salvarPacientes repassa violações que não são de CPF duplicado (ex.: valor maior que a coluna)")
+    void salvarPacientes_RepassaOutrasViolacoes() {
+        when(repository.findByCpfIn(anyCollection())).thenReturn(List.of());
+        DataIntegrityViolationException valorLongo = violacao("value too long for type character varying(255)", "22001");
+        doThrow(valorLongo).when(repository).flush();
+
+        assertSame(valorLongo, assertThrows(DataIntegrityViolationException.class,
+                () -> service.salvarPacientes(List.of(paciente("11111111111", "Ana")))));
+        verifyNoInteractions(eventos);
+    }
+
+    private static DataIntegrityViolationException violacao(String mensagem, String sqlState) {
+        return new DataIntegrityViolationException(mensagem,
+                new ConstraintViolationException(mensagem, new SQLException(mensagem, sqlState), null));
+    }
+}
@@ -0,0 +1,137 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.PacienteJpaTest;
+import com.sobrevidas.crud_pacientes.dto.CursorPageResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteFiltroDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResumoDTO;
+import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@PacienteJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PacienteServiceBuscaTest {
+
+    private static final PacienteFiltroDTO SEM_FILTRO = new PacienteFiltroDTO(null, null, null, null, null, null, null, null);
+
+    @Autowired
+    private PacienteService service;
+
+    @Autowired
+    private PacienteRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate hoje = LocalDate.now();
+        repository.saveAll(List.of(
+                paciente("11111111111", "Goiânia", "Centro", "GO", true, false, true, hoje.minusYears(45)),
+                paciente("22222222222", "Goiânia", "Bueno", "GO", false, true, false, hoje.minusYears(30)),
+                paciente("33333333333", "Anápolis", "Centro", "GO", true, true, true, hoje.minusYears(70)),
+                paciente("44444444444", "Goiânia", "Centro", "GO", false, false, true, hoje.minusYears(20)),
+                paciente("55555555555", "Palmas", "Centro", "TO", true, false, true, hoje.minusYears(50))));
+        // Sem isso as consultas devolveriam as instâncias já gerenciadas pelo saveAll.
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("buscarPacientes combina localidade e fatores de risco")
+    void buscarPacientes_CombinaFiltros() {
+        PacienteFiltroDTO filtro = new PacienteFiltroDTO("Goiânia", "Centro", "GO", null, null, true, null, null);
+
+        assertEquals(List.of("11111111111", "44444444444"), cpfs(service.buscarPacientes(filtro, null, null)));
+    }
+
+    @Test
+    @DisplayName("buscarPacientes filtra por faixa etária, com limites inclusivos")
+    void buscarPacientes_FiltraPorIdade() {
+        PacienteFiltroDTO filtro = new PacienteFiltroDTO(null, null, null, null, null, null, 30, 50);
+
+        assertEquals(List.of("11111111111", "22222222222", "55555555555"), cpfs(service.buscarPacientes(filtro, null, null)));
+    }
+
+    @Test
+    @DisplayName("buscarPacientes filtra flags falsas e ignora textos vazios")
+    void buscarPacientes_FiltraFlagsFalsas() {
+        PacienteFiltroDTO filtro = new PacienteFiltroDTO(" ", null, null, false, false, null, null, null);
+
+        assertEquals(List.of("44444444444"), cpfs(service.buscarPacientes(filtro, null, null)));
+    }
+
+    @Test
+    @DisplayName("buscarPacientes pagina por cursor mantendo os filtros")
+    void buscarPacientes_PaginaPorCursor() {
+        PacienteFiltroDTO filtro = new PacienteFiltroDTO(null, null, null, true, null, null, null, null);
+
+        CursorPageResponseDTO<PacienteResponseDTO> primeira = service.buscarPacientes(filtro, null, 2);
+        CursorPageResponseDTO<PacienteResponseDTO> segunda = service.buscarPacientes(filtro, primeira.proximoCursor(), 2);
+
+        assertEquals(List.of("11111111111", "33333333333"), cpfs(primeira));
+        assertNotNull(primeira.proximoCursor());
+        assertEquals(List.of("55555555555"), cpfs(segunda));
+        assertNull(segunda.proximoCursor());
+    }
+
+    @Test
+    @DisplayName("buscarPacientes sem filtros retorna todos, e rejeita faixa etária invertida")
+    void buscarPacientes_SemFiltrosEFaixaInvertida() {
+        assertEquals(5, service.buscarPacientes(SEM_FILTRO, null, null).tamanhoPagina());
+        assertThrows(InvalidRequestException.class, () -> service.buscarPacientes(
+                new PacienteFiltroDTO(null, null, null, null, null, null, 60, 40), null, null));
+    }
+
+    @Test
+    @DisplayName("listagem e busca projetam direto para o DTO, sem carregar entidades")
+    void listarEBuscar_NaoCarregamEntidades() {
+        Statistics estatisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        CursorPageResponseDTO<PacienteResponseDTO> pagina = service.listarPacientes(null, 2);
+        CursorPageResponseDTO<PacienteResumoDTO> resumos = service.buscarResumos(
+                new PacienteFiltroDTO(null, null, "GO", null, null, true, null, null), null, null);
+
+        assertEquals(List.of("11111111111", "22222222222"), cpfs(pagina));
+        assertEquals(0L, pagina.conteudo().getFirst().versao());
+        assertEquals(List.of("11111111111", "33333333333", "44444444444"),
+                resumos.conteudo().stream().map(PacienteResumoDTO::cpf).toList());
+        assertTrue(resumos.conteudo().getFirst().temLesaoSuspeita());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    private static List<String> cpfs(CursorPageResponseDTO<PacienteResponseDTO> pagina) {
+        return pagina.conteudo().stream().map(PacienteResponseDTO::cpf).toList();
+    }
+
+    private static Paciente paciente(String cpf, String cidade, String bairro, String estado, boolean tabagista,
+                                     boolean etilista, boolean lesaoSuspeita, LocalDate dataNascimento) {
+        return Paciente.builder()
+                .cpf(cpf)
+                .nome("Paciente " + cpf)
+                .cidade(cidade)
+                .bairro(bairro)
+                .estado(estado)
+                .ehTabagista(tabagista)
+                .ehEtilista(etilista)
+                .temLesaoSuspeita(lesaoSuspeita)
+                .dataNascimento(dataNascimento)
+                .build();
+    }
+}
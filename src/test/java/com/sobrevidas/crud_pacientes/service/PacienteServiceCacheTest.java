@@ -0,0 +1,138 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sobrevidas.crud_pacientes.PacienteJpaTest;
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import com.sobrevidas.crud_pacientes.dto.PacientePatchDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.exception.ResourceNotFoundException;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.sobrevidas.crud_pacientes.PacientesTeste.paciente;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de {@link PacienteService#buscarPacientePorId} com o Caffeine real sobre H2. A redução de carga no banco
+ * é medida pelas estatísticas do Hibernate (entidades carregadas) e do Caffeine (acertos e falhas).
+ */
+@PacienteJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "pacientes.cache.spec=maximumSize=1000,expireAfterWrite=10m,recordStats"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PacienteServiceCacheTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private PacienteService service;
+
+    @Autowired
+    private PacienteRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+        cacheManager.getCache(CacheConfig.PACIENTES).clear();
+    }
+
+    @Test
+    @DisplayName("carga de leitura: cada paciente é lido do banco uma única vez, o resto vem do cache")
+    void buscarPacientePorId_CargaDeLeitura_ReduzAcessosAoBanco() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(service.salvarPaciente(paciente(String.format("%011d", i), "Paciente " + i)).id());
+        }
+        cacheManager.getCache(CacheConfig.PACIENTES).clear();
+        estatisticas.clear();
+        CacheStats antes = estatisticasDoCache();
+
+        int leiturasPorThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < leiturasPorThread; i++) {
+                        service.buscarPacientePorId(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CacheStats carga = estatisticasDoCache().minus(antes);
+        long leituras = (long) THREADS * leiturasPorThread;
+        // sync = true: leituras simultâneas do mesmo id esperam um único carregamento.
+        assertEquals(ids.size(), estatisticas.getEntityLoadCount());
+        assertEquals(leituras, carga.requestCount());
+        assertEquals(ids.size(), carga.missCount());
+        assertTrue(carga.hitRate() > 0.99, "taxa de acerto: " + carga.hitRate());
+    }
+
+    @Test
+    @DisplayName("escritas mantêm o cache correto: cadastro e atualizações gravam no cache, remoção tira")
+    void escritas_MantemCacheCorreto() {
+        PacienteResponseDTO salvo = service.salvarPaciente(paciente("12345678901", "Nome Original"));
+        estatisticas.clear();
+
+        assertEquals("Nome Original", service.buscarPacientePorId(salvo.id()).nome());
+        assertEquals(0, estatisticas.getEntityLoadCount(), "o cadastro já deve ter colocado o paciente no cache");
+
+        service.atualizarPaciente(salvo.id(), paciente("12345678901", "Nome Atualizado"), null);
+        assertEquals("Nome Atualizado", service.buscarPacientePorId(salvo.id()).nome());
+
+        service.atualizarPacienteParcial(salvo.id(), new PacientePatchDTO(true, true, true), null);
+        assertTrue(service.buscarPacientePorId(salvo.id()).temLesaoSuspeita());
+
+        service.removerPaciente(salvo.id());
+        assertNull(cacheManager.getCache(CacheConfig.PACIENTES).get(salvo.id()));
+        assertThrows(ResourceNotFoundException.class, () -> service.buscarPacientePorId(salvo.id()));
+    }
+
+    private CacheStats estatisticasDoCache() {
+        Cache cache = cacheManager.getCache(CacheConfig.PACIENTES);
+        Cache alvo = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        return ((CaffeineCache) alvo).getNativeCache().stats();
+    }
+}
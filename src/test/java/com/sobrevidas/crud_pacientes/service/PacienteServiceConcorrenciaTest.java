@@ -0,0 +1,178 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.PacienteJpaTest;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.exception.PreconditionFailedException;
+import com.sobrevidas.crud_pacientes.exception.ResourceAlreadyExistsException;
+import com.sobrevidas.crud_pacientes.mapper.PacienteMapperImpl;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sobrevidas.crud_pacientes.PacientesTeste.paciente;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roda {@link PacienteService#salvarPaciente} contra um banco H2 em memória, com várias threads ao mesmo tempo.
+ * O número de comandos enviados ao banco por cadastro é usado como medida de latência, já que o tempo de parede
+ * do H2 em memória não representa a ida e volta de rede até o PostgreSQL.
+ */
+@PacienteJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PacienteServiceConcorrenciaTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private PacienteService service;
+
+    @Autowired
+    private PacienteRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // O INSERT do evento no outbox entraria nas estatísticas só do caminho novo; ele é coberto em RelayEventosPacienteTest.
+    @MockBean
+    private PacienteEventoService eventos;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("cadastros simultâneos com o mesmo CPF: exatamente um é gravado e os demais recebem 409")
+    void salvarPaciente_MesmoCpfEmParalelo_GravaApenasUm() throws Exception {
+        AtomicInteger conflitos = new AtomicInteger();
+        List<Callable<Void>> tarefas = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tarefas.add(() -> {
+                try {
+                    service.salvarPaciente(paciente("12345678901", "Paciente Teste"));
+                } catch (ResourceAlreadyExistsException e) {
+                    conflitos.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        executarEmParalelo(tarefas);
+
+        assertEquals(THREADS - 1, conflitos.get());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    @DisplayName("atualizações simultâneas com o mesmo If-Match: só uma grava, as demais falham sem perder dados")
+    void atualizarPaciente_MesmaVersaoEmParalelo_GravaApenasUma() throws Exception {
+        PacienteResponseDTO salvo = service.salvarPaciente(paciente("12345678901", "Paciente Teste"));
+        AtomicInteger gravadas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        List<Callable<Void>> tarefas = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String nome = "Atualização " + i;
+            tarefas.add(() -> {
+                try {
+                    service.atualizarPaciente(salvo.id(), paciente("12345678901", nome), salvo.versao());
+                    gravadas.incrementAndGet();
+                } catch (PreconditionFailedException | ObjectOptimisticLockingFailureException e) {
+                    recusadas.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        executarEmParalelo(tarefas);
+
+        assertEquals(1, gravadas.get());
+        assertEquals(THREADS - 1, recusadas.get());
+        assertEquals(salvo.versao() + 1, repository.findById(salvo.id()).orElseThrow().getVersao());
+    }
+
+    @Test
+    @DisplayName("salvarPaciente usa um único comando por cadastro, metade do caminho consulta-e-insere")
+    void salvarPaciente_UsaUmComandoPorCadastro() throws Exception {
+        int cadastros = 200;
+        List<Callable<Void>> tarefas = new ArrayList<>();
+        for (int i = 0; i < cadastros; i++) {
+            String cpf = String.format("%011d", i);
+            tarefas.add(() -> {
+                service.salvarPaciente(paciente(cpf, "Paciente Teste"));
+                return null;
+            });
+        }
+
+        executarEmParalelo(tarefas);
+        long comandosPorCadastro = estatisticas.getPrepareStatementCount();
+
+        assertEquals(cadastros, repository.count());
+        assertEquals(cadastros, estatisticas.getEntityInsertCount());
+
+        // Caminho anterior: existsByCpf seguido do INSERT, na mesma transação.
+        repository.deleteAllInBatch();
+        estatisticas.clear();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<Callable<Void>> tarefasAntigas = new ArrayList<>();
+        for (int i = 0; i < cadastros; i++) {
+            String cpf = String.format("%011d", i);
+            tarefasAntigas.add(() -> {
+                transacao.executeWithoutResult(status -> {
+                    if (!repository.existsByCpf(cpf)) {
+                        repository.saveAndFlush(new PacienteMapperImpl().toEntity(paciente(cpf, "Paciente Teste")));
+                    }
+                });
+                return null;
+            });
+        }
+        executarEmParalelo(tarefasAntigas);
+        long comandosConsultaEInsere = estatisticas.getPrepareStatementCount();
+
+        // Os ids vêm do pacientes_seq com allocationSize 50, então a sequência pesa ~1 comando a cada 50 cadastros.
+        assertTrue(comandosPorCadastro <= cadastros + cadastros / 50 + THREADS,
+                "comandos no caminho novo: " + comandosPorCadastro);
+        assertTrue(comandosConsultaEInsere >= 2L * cadastros,
+                "comandos no caminho consulta-e-insere: " + comandosConsultaEInsere);
+    }
+
+    private static void executarEmParalelo(List<Callable<Void>> tarefas) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> resultado : executor.invokeAll(tarefas)) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.sobrevidas.crud_pacientes.service;
 
+import com.sobrevidas.crud_pacientes.dto.CursorPageResponseDTO;
 import com.sobrevidas.crud_pacientes.dto.PacientePatchDTO;
 import com.sobrevidas.crud_pacientes.dto.PacienteRequestDTO;
 import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResumoDTO;
+import com.sobrevidas.crud_pacientes.config.CacheConfig;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.exception.PreconditionFailedException;
 import com.sobrevidas.crud_pacientes.exception.ResourceAlreadyExistsException;
 import com.sobrevidas.crud_pacientes.exception.ResourceNotFoundException;
 import com.sobrevidas.crud_pacientes.mapper.PacienteMapper;
 import com.sobrevidas.crud_pacientes.entity.Paciente;
+import com.sobrevidas.crud_pacientes.entity.TipoEventoPaciente;
 import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import com.sobrevidas.crud_pacientes.util.CursorCodec;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,7 +23,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +45,15 @@ class PacienteServiceTest {
     @Mock
     private PacienteMapper mapper;
 
+    @Mock
+    private CpfIndiceService cpfIndice;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private PacienteEventoService eventos;
+
     @InjectMocks
     private PacienteService service;
 
@@ -66,16 +88,15 @@ class PacienteServiceTest {
                 "Rua Teste", "1", "Casa", "Bairro Teste", "Cidade Teste", "GO",
                 "62999999999", "62988888888", "teste@teste.com",
                 "Masculino", "987654321",
-                false, false, false, false
+                false, false, false, false, 0L, null, null
         );
     }
 
     @Test
     @DisplayName("Salva paciente com sucesso")
     void salvarPaciente_SalvarComSucesso() {
-        when(repository.existsByCpf(requestDTO.cpf())).thenReturn(false);
         when(mapper.toEntity(requestDTO)).thenReturn(paciente);
-        when(repository.save(paciente)).thenReturn(paciente);
+        when(repository.saveAndFlush(paciente)).thenReturn(paciente);
         when(mapper.toResponseDTO(paciente)).thenReturn(responseDTO);
 
         PacienteResponseDTO resultado = service.salvarPaciente(requestDTO);
@@ -83,21 +104,61 @@ class PacienteServiceTest {
         assertNotNull(resultado);
         assertEquals(responseDTO.id(), resultado.id());
         assertEquals(responseDTO.nome(), resultado.nome());
-        verify(repository, times(1)).existsByCpf(requestDTO.cpf());
-        verify(repository, times(1)).save(paciente);
+        verify(repository, never()).existsByCpf(anyString());
+        verify(repository, times(1)).saveAndFlush(paciente);
+        verify(cpfIndice).registrar("12345678901");
+        verify(eventos).registrar(TipoEventoPaciente.CRIADO, paciente);
     }
 
     @Test
     @DisplayName("salvarPaciente lança ResourceAlreadyExistsException quando CPF já existe")
     void salvarPaciente_LancaResourceAlreadyExistsException_QuandoCpfJaExiste() {
-        when(repository.existsByCpf(requestDTO.cpf())).thenReturn(true);
+        when(mapper.toEntity(requestDTO)).thenReturn(paciente);
+        when(repository.saveAndFlush(paciente))
+                .thenThrow(violacao("duplicate key value violates unique constraint", "23505", "uk1mj2svx930q0tkx1d18qa9rtf"));
 
         ResourceAlreadyExistsException exception = assertThrows(ResourceAlreadyExistsException.class, () -> {
             service.salvarPaciente(requestDTO);
         });
 
         assertEquals("CPF já cadastrado.", exception.getMessage());
-        verify(repository, never()).save(any(Paciente.class));
+        verify(repository, never()).existsByCpf(anyString());
+        verifyNoInteractions(eventos);
+    }
+
+    @Test
+    @DisplayName("salvarPaciente repassa violações que não são de CPF duplicado (ex.: valor maior que a coluna)")
+    void salvarPaciente_RepassaOutrasViolacoes() {
+        when(mapper.toEntity(requestDTO)).thenReturn(paciente);
+        DataIntegrityViolationException valorLongo = violacao("value too long for type character varying(255)", "22001", null);
+        when(repository.saveAndFlush(paciente)).thenThrow(valorLongo);
+
+        assertSame(valorLongo, assertThrows(DataIntegrityViolationException.class, () -> service.salvarPaciente(requestDTO)));
+        verifyNoInteractions(eventos);
+    }
+
+    @Test
+    @DisplayName("buscarPacientePorCpf responde 404 sem consultar o banco quando o índice descarta o CPF")
+    void buscarPacientePorCpf_NaoConsultaBanco_QuandoIndiceDescartaCpf() {
+        when(cpfIndice.podeExistir("99999999999")).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.buscarPacientePorCpf("99999999999"));
+        assertFalse(service.existePacienteComCpf("99999999999"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("buscarPacientePorCpf confirma no banco quando o CPF pode existir, e rejeita formato inválido")
+    void buscarPacientePorCpf_ConfirmaNoBanco_QuandoCpfPodeExistir() {
+        when(cpfIndice.podeExistir("12345678901")).thenReturn(true);
+        when(repository.findByCpf("12345678901")).thenReturn(Optional.of(paciente));
+        when(mapper.toResponseDTO(paciente)).thenReturn(responseDTO);
+        when(repository.existsByCpf("12345678901")).thenReturn(true);
+
+        assertEquals(1L, service.buscarPacientePorCpf("12345678901").id());
+        assertTrue(service.existePacienteComCpf("12345678901"));
+        assertThrows(InvalidRequestException.class, () -> service.buscarPacientePorCpf("123.456.789-01"));
+        assertThrows(InvalidRequestException.class, () -> service.existePacienteComCpf("123"));
     }
 
     @Test
@@ -129,15 +190,45 @@ class PacienteServiceTest {
     @DisplayName("Atualiza paciente com sucesso (PUT)")
     void atualizarPaciente_AtualizarComSucesso() {
         when(repository.findById(1L)).thenReturn(Optional.of(paciente));
-        when(repository.save(paciente)).thenReturn(paciente);
+        when(repository.saveAndFlush(paciente)).thenReturn(paciente);
         when(mapper.toResponseDTO(paciente)).thenReturn(responseDTO);
 
-        PacienteResponseDTO resultado = service.atualizarPaciente(1L, requestDTO);
+        PacienteResponseDTO resultado = service.atualizarPaciente(1L, requestDTO, null);
 
         assertNotNull(resultado);
         verify(repository, times(1)).findById(1L);
         verify(mapper, times(1)).updateEntityFromDto(requestDTO, paciente);
-        verify(repository, times(1)).save(paciente);
+        verify(repository, times(1)).saveAndFlush(paciente);
+        verify(eventos).registrar(TipoEventoPaciente.ATUALIZADO, paciente);
+    }
+
+    @Test
+    @DisplayName("atualizarPaciente lança PreconditionFailedException quando If-Match traz versão antiga (PUT)")
+    void atualizarPaciente_LancaPreconditionFailedException_QuandoVersaoDiverge() {
+        paciente.setVersao(5L);
+        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+
+        assertThrows(PreconditionFailedException.class, () -> service.atualizarPaciente(1L, requestDTO, 4L));
+        assertThrows(PreconditionFailedException.class, () -> service.atualizarPacienteParcial(1L, new PacientePatchDTO(true, false, false), 4L));
+        verify(mapper, never()).updateEntityFromDto(any(), any());
+        verify(repository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventos);
+    }
+
+    @Test
+    @DisplayName("buscarVersaoPacientePorId usa o cache e, sem ele, consulta só a versão")
+    void buscarVersaoPacientePorId_UsaCacheOuConsultaSoAVersao() {
+        ConcurrentMapCache cache = new ConcurrentMapCache(CacheConfig.PACIENTES);
+        cache.put(1L, responseDTO);
+        when(cacheManager.getCache(CacheConfig.PACIENTES)).thenReturn(cache);
+        when(repository.buscarVersaoPorId(2L)).thenReturn(Optional.of(7L));
+        when(repository.buscarVersaoPorId(99L)).thenReturn(Optional.empty());
+
+        assertEquals(0L, service.buscarVersaoPacientePorId(1L));
+        assertEquals(7L, service.buscarVersaoPacientePorId(2L));
+        assertThrows(ResourceNotFoundException.class, () -> service.buscarVersaoPacientePorId(99L));
+        verify(repository, never()).buscarVersaoPorId(1L);
+        verify(repository, never()).findById(anyLong());
     }
 
     @Test
@@ -146,10 +237,10 @@ class PacienteServiceTest {
         when(repository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
-            service.atualizarPaciente(99L, requestDTO);
+            service.atualizarPaciente(99L, requestDTO, null);
         });
         verify(mapper, never()).updateEntityFromDto(any(), any());
-        verify(repository, never()).save(any());
+        verify(repository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -166,14 +257,38 @@ class PacienteServiceTest {
         );
 
         when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(cpfIndice.podeExistir("00011122233")).thenReturn(true);
         when(repository.existsByCpf("00011122233")).thenReturn(true);
 
         ResourceAlreadyExistsException exception = assertThrows(ResourceAlreadyExistsException.class, () -> {
-            service.atualizarPaciente(1L, dtoCpfDuplicado);
+            service.atualizarPaciente(1L, dtoCpfDuplicado, null);
         });
 
         assertEquals("CPF já cadastrado para outro paciente.", exception.getMessage());
-        verify(repository, never()).save(any());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("atualizarPaciente não consulta o banco quando o índice garante que o novo CPF está livre (PUT)")
+    void atualizarPaciente_NaoConsultaCpf_QuandoIndiceDescartaCpf() {
+        PacienteRequestDTO dtoCpfNovo = new PacienteRequestDTO(
+                "00011122233",
+                "Outro Nome",
+                LocalDate.of(1990, 1, 1), "Mae Teste", "74000000", "Rua Teste", "1",
+                "Casa", "Bairro Teste", "Cidade Teste", "GO",
+                "62999999999", "62988888888", "teste@teste.com",
+                "Masculino", "987654321",
+                false, false, false, false
+        );
+        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(cpfIndice.podeExistir("00011122233")).thenReturn(false);
+        when(repository.saveAndFlush(paciente)).thenReturn(paciente);
+        when(mapper.toResponseDTO(paciente)).thenReturn(responseDTO);
+
+        service.atualizarPaciente(1L, dtoCpfNovo, null);
+
+        verify(repository, never()).existsByCpf(anyString());
+        verify(cpfIndice).registrar("00011122233");
     }
 
     @Test
@@ -186,15 +301,16 @@ class PacienteServiceTest {
         );
 
         when(repository.findById(1L)).thenReturn(Optional.of(paciente));
-        when(repository.save(paciente)).thenReturn(paciente);
+        when(repository.saveAndFlush(paciente)).thenReturn(paciente);
         when(mapper.toResponseDTO(paciente)).thenReturn(responseDTO);
 
-        PacienteResponseDTO resultado = service.atualizarPacienteParcial(1L, patchDTO);
+        PacienteResponseDTO resultado = service.atualizarPacienteParcial(1L, patchDTO, null);
 
         assertNotNull(resultado);
         verify(repository, times(1)).findById(1L);
         verify(mapper, times(1)).patchEntityFromDto(patchDTO, paciente);
-        verify(repository, times(1)).save(paciente);
+        verify(repository, times(1)).saveAndFlush(paciente);
+        verify(eventos).registrar(TipoEventoPaciente.ATUALIZADO, paciente);
     }
 
     @Test
@@ -205,11 +321,11 @@ class PacienteServiceTest {
         when(repository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
-            service.atualizarPacienteParcial(99L, patchDTO);
+            service.atualizarPacienteParcial(99L, patchDTO, null);
         });
 
         verify(mapper, never()).patchEntityFromDto(any(), any());
-        verify(repository, never()).save(any());
+        verify(repository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -222,6 +338,7 @@ class PacienteServiceTest {
 
         verify(repository, times(1)).existsById(1L);
         verify(repository, times(1)).deleteById(1L);
+        verify(eventos).registrarRemocao(1L);
     }
 
     @Test
@@ -233,19 +350,80 @@ class PacienteServiceTest {
             service.removerPaciente(99L);
         });
         verify(repository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventos);
+    }
+
+    @Test
+    @DisplayName("listarResumos devolve a primeira página com próximo cursor")
+    void listarResumos_RetornaPrimeiraPaginaComProximoCursor() {
+        PacienteResumoDTO primeiro = new PacienteResumoDTO(1L, "Paciente Teste", "12345678901", true, false, false);
+        PacienteResumoDTO outro = new PacienteResumoDTO(2L, "Outro Paciente", "10987654321", false, false, false);
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2), PacienteResumoDTO.class))
+                .thenReturn(List.of(primeiro, outro));
+
+        CursorPageResponseDTO<PacienteResumoDTO> pagina = service.listarResumos(null, 1);
+
+        assertEquals(1, pagina.tamanhoPagina());
+        assertEquals(List.of(primeiro), pagina.conteudo());
+        assertEquals(CursorCodec.encode(1L), pagina.proximoCursor());
     }
 
     @Test
-    @DisplayName("lista pacientes com sucesso")
-    void listarTodosPacientes_RetornaListaPacientes() {
-        when(repository.findAll()).thenReturn(List.of(paciente));
+    @DisplayName("lista a última página de pacientes sem próximo cursor")
+    void listarPacientes_RetornaUltimaPaginaSemProximoCursor() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(PacienteService.TAMANHO_PAGINA_PADRAO + 1),
+                PacienteResponseDTO.class))
+                .thenReturn(List.of(responseDTO));
+
+        CursorPageResponseDTO<PacienteResponseDTO> pagina = service.listarPacientes(null, null);
+
+        assertEquals(1, pagina.tamanhoPagina());
+        assertNull(pagina.proximoCursor());
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    @DisplayName("listarPacientes continua a partir do cursor e limita o tamanho máximo da página")
+    void listarPacientes_UsaCursorELimitaTamanhoMaximo() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(PacienteService.TAMANHO_PAGINA_MAXIMO + 1),
+                PacienteResponseDTO.class))
+                .thenReturn(List.of());
+
+        CursorPageResponseDTO<PacienteResponseDTO> pagina = service.listarPacientes(CursorCodec.encode(1L), 10_000);
+
+        assertTrue(pagina.conteudo().isEmpty());
+        assertNull(pagina.proximoCursor());
+    }
+
+    @Test
+    @DisplayName("listarPacientes lança InvalidRequestException para cursor inválido")
+    void listarPacientes_LancaInvalidRequestException_QuandoCursorInvalido() {
+        assertThrows(InvalidRequestException.class, () -> service.listarPacientes("@@@", null));
+        verify(repository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class), any());
+    }
+
+    @Test
+    @DisplayName("buscarPorNome normaliza o termo (minúsculas, sem acentos) e limita a quantidade de resultados")
+    void buscarPorNome_NormalizaTermoELimitaResultados() {
+        when(repository.buscarPorNomeSemelhante("joao da silva", PacienteService.LIMITE_BUSCA_NOME_MAXIMO))
+                .thenReturn(List.of(paciente));
         when(mapper.toResponseDTO(paciente)).thenReturn(responseDTO);
 
-        List<PacienteResponseDTO> lista = service.listarTodosPacientes();
+        List<PacienteResponseDTO> resultado = service.buscarPorNome("  JOÃO  da Sílva ", 1_000);
+
+        assertEquals(List.of(responseDTO), resultado);
+    }
+
+    @Test
+    @DisplayName("buscarPorNome lança InvalidRequestException para termo com menos de 3 caracteres")
+    void buscarPorNome_LancaInvalidRequestException_QuandoTermoCurto() {
+        assertThrows(InvalidRequestException.class, () -> service.buscarPorNome(" jo ", null));
+        verify(repository, never()).buscarPorNomeSemelhante(anyString(), anyInt());
+    }
 
-        assertNotNull(lista);
-        assertEquals(1, lista.size());
-        assertEquals("Paciente Teste", lista.get(0).nome());
-        verify(repository, times(1)).findAll();
+    // Como o Spring entrega a exceção do Hibernate: DataIntegrityViolationException > ConstraintViolationException > SQLException.
+    private static DataIntegrityViolationException violacao(String mensagem, String sqlState, String restricao) {
+        return new DataIntegrityViolationException(mensagem,
+                new ConstraintViolationException(mensagem, new SQLException(mensagem, sqlState), restricao));
     }
-}
\ No newline at end of file
+}
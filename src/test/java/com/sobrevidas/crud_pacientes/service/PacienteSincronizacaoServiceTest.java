@@ -0,0 +1,181 @@
+package com.sobrevidas.crud_pacientes.service;
+
+import com.sobrevidas.crud_pacientes.PacienteJpaTest;
+import com.sobrevidas.crud_pacientes.dto.PacienteRemovidoDTO;
+import com.sobrevidas.crud_pacientes.dto.PacienteResponseDTO;
+import com.sobrevidas.crud_pacientes.dto.SincronizacaoPacientesDTO;
+import com.sobrevidas.crud_pacientes.exception.InvalidRequestException;
+import com.sobrevidas.crud_pacientes.repository.PacienteEventoRepository;
+import com.sobrevidas.crud_pacientes.repository.PacienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.sobrevidas.crud_pacientes.PacientesTeste.paciente;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roda as escritas do {@link PacienteService} e a sincronização contra um banco H2 em memória. O relógio da
+ * sincronização é controlado pelo teste, para que a margem não dependa do tempo entre as escritas e a leitura.
+ */
+@PacienteJpaTest
+@Import(PacienteSincronizacaoServiceTest.Configuracao.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PacienteSincronizacaoServiceTest {
+
+    private static final Duration MARGEM = Duration.ofSeconds(30);
+
+    @Autowired
+    private PacienteService service;
+
+    @Autowired
+    private PacienteRepository repository;
+
+    @Autowired
+    private PacienteEventoRepository eventoRepository;
+
+    @Autowired
+    private PacienteSincronizacaoService sincronizacao;
+
+    @Autowired
+    private Relogio agora;
+
+    @AfterEach
+    void tearDown() {
+        eventoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("a primeira sincronização traz todo o cadastro, paginado, e a seguinte não traz nada")
+    void sincronizar_Primeira_TrazCadastroPaginado() {
+        List<Long> ids = List.of(
+                service.salvarPaciente(paciente("00000000001", "Ana")).id(),
+                service.salvarPaciente(paciente("00000000002", "Bruno")).id(),
+                service.salvarPaciente(paciente("00000000003", "Carla")).id());
+        avancarAlemDaMargem();
+
+        SincronizacaoPacientesDTO primeira = sincronizacao.sincronizar(null, 2);
+        SincronizacaoPacientesDTO segunda = sincronizacao.sincronizar(primeira.proximoSince(), 2);
+        SincronizacaoPacientesDTO terceira = sincronizacao.sincronizar(segunda.proximoSince(), 2);
+
+        assertEquals(ids.subList(0, 2), primeira.alterados().stream().map(PacienteResponseDTO::id).toList());
+        assertTrue(primeira.temMais());
+        assertTrue(primeira.removidos().isEmpty());
+        assertEquals(ids.subList(2, 3), segunda.alterados().stream().map(PacienteResponseDTO::id).toList());
+        assertFalse(segunda.temMais());
+        assertTrue(terceira.alterados().isEmpty());
+        assertTrue(terceira.removidos().isEmpty());
+        assertNotNull(primeira.alterados().getFirst().atualizadoEm());
+        assertNotNull(primeira.alterados().getFirst().criadoEm());
+    }
+
+    @Test
+    @DisplayName("depois da primeira, só vêm os pacientes alterados e as remoções, com a marca avançando")
+    void sincronizar_Incremental_TrazAlteradosERemovidos() {
+        PacienteResponseDTO ana = service.salvarPaciente(paciente("00000000001", "Ana"));
+        PacienteResponseDTO bruno = service.salvarPaciente(paciente("00000000002", "Bruno"));
+        service.salvarPaciente(paciente("00000000003", "Carla"));
+        avancarAlemDaMargem();
+        String marca = sincronizacao.sincronizar(null, null).proximoSince();
+
+        PacienteResponseDTO anaAtualizada = service.atualizarPaciente(ana.id(), paciente("00000000001", "Ana Maria"), null);
+        service.removerPaciente(bruno.id());
+        avancarAlemDaMargem();
+        SincronizacaoPacientesDTO delta = sincronizacao.sincronizar(marca, null);
+
+        assertEquals(List.of(ana.id()), delta.alterados().stream().map(PacienteResponseDTO::id).toList());
+        assertEquals("Ana Maria", delta.alterados().getFirst().nome());
+        assertEquals(anaAtualizada.versao(), delta.alterados().getFirst().versao());
+        assertTrue(delta.alterados().getFirst().atualizadoEm().isAfter(delta.alterados().getFirst().criadoEm()));
+        assertEquals(List.of(bruno.id()), delta.removidos().stream().map(PacienteRemovidoDTO::id).toList());
+        assertFalse(delta.temMais());
+
+        SincronizacaoPacientesDTO seguinte = sincronizacao.sincronizar(delta.proximoSince(), null);
+        assertTrue(seguinte.alterados().isEmpty());
+        assertTrue(seguinte.removidos().isEmpty());
+    }
+
+    @Test
+    @DisplayName("alterações mais recentes que a margem ficam para a próxima sincronização")
+    void sincronizar_AlteracaoDentroDaMargem_FicaParaDepois() {
+        agora.set(Instant.now());
+        String marca = sincronizacao.sincronizar(null, null).proximoSince();
+        PacienteResponseDTO ana = service.salvarPaciente(paciente("00000000001", "Ana"));
+
+        SincronizacaoPacientesDTO dentroDaMargem = sincronizacao.sincronizar(marca, null);
+        avancarAlemDaMargem();
+        SincronizacaoPacientesDTO depois = sincronizacao.sincronizar(dentroDaMargem.proximoSince(), null);
+
+        assertTrue(dentroDaMargem.alterados().isEmpty());
+        assertEquals(List.of(ana.id()), depois.alterados().stream().map(PacienteResponseDTO::id).toList());
+    }
+
+    @Test
+    @DisplayName("marca de sincronização malformada é recusada")
+    void sincronizar_MarcaInvalida_LancaInvalidRequestException() {
+        agora.set(Instant.now());
+
+        assertThrows(InvalidRequestException.class, () -> sincronizacao.sincronizar("nao-e-uma-marca", null));
+        assertThrows(InvalidRequestException.class, () -> sincronizacao.sincronizar(null, 0));
+    }
+
+    // A sincronização passa a ir até o instante real atual: tudo o que já foi gravado entra, e o que for gravado
+    // depois fica para a próxima.
+    private void avancarAlemDaMargem() {
+        agora.set(Instant.now().plus(MARGEM));
+    }
+
+    static class Relogio extends Clock {
+
+        private volatile Instant instante = Instant.now();
+
+        void set(Instant instante) {
+            this.instante = instante;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instante;
+        }
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        Relogio relogio() {
+            return new Relogio();
+        }
+
+        @Bean
+        PacienteSincronizacaoService pacienteSincronizacaoService(PacienteRepository repository,
+                                                                  PacienteEventoRepository eventoRepository,
+                                                                  Relogio relogio) {
+            return new PacienteSincronizacaoService(repository, eventoRepository, MARGEM, relogio);
+        }
+    }
+}